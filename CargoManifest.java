@@ -1,9 +1,19 @@
 package asgn2Manifests;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.StampedLock;
 
 import asgn2Codes.ContainerCode;
+import asgn2Containers.DangerousGoodsContainer;
 import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
 import asgn2Exceptions.ManifestException;
 
 /**
@@ -39,16 +49,40 @@ import asgn2Exceptions.ManifestException;
  * Furthermore, since the containers are moved by an overhead
  * crane, a container can be unloaded only if it is on top of
  * a stack.
+ * <p>
+ * A manifest may be read by other threads, such as the display or
+ * reporting threads, while containers are being loaded.  Changes are
+ * made one at a time under a write lock.  Reads are optimistic: they take
+ * no lock and are only repeated (under a read lock) if a change happened
+ * while they were reading, so readers never hold up the cranes and never
+ * see a stack part-way through a change.
  *  
  * @author fatimah-n8631000
  * @version 1.0
  */
-public class CargoManifest {
+public class CargoManifest implements ShipManifest {
+
+	private static final int MAX_GROSS_WEIGHT = 30; // the heaviest a container can be, in tonnes
+	private static final int MAX_CATEGORY = 9; // the highest dangerous goods category
+	private static final Class<?>[] STANDARD_TYPES = { // given the first type ids, so they are never added
+		GeneralGoodsContainer.class, RefrigeratedContainer.class, DangerousGoodsContainer.class
+	};
 
-	private ArrayList<ArrayList<FreightContainer>> manifest;
+	private final StackStore manifest; // the containers in each stack
 	private Integer maxHeight;
 	private Integer maxWeight;
-	private Integer currentWeight; // the current total weight of all containers
+	private int currentWeight; // the current total weight of all containers
+	private CodeIndex positions; // where each container on board is, by packed code
+	private StackPlacement space; // the stacks a new container may go on
+	private long[] stackVersions; // how many times each stack has changed
+	private int[] stackWeights; // the total weight in each stack
+	private Class<?>[] types; // the container classes seen, by type id; replaced, never changed, when one is added
+	private int[] typeCounts; // the number of containers, by type id
+	private int[] typeWeights; // the total weight of containers, by type id
+	private int[] categoryCounts; // the number of dangerous goods containers, by category
+	private ManifestIndexes indexes; // by type, owner, weight and category; built on the first query
+	private volatile ManifestMetrics metrics; // null unless operations are being measured
+	private final StampedLock lock = new StampedLock(); // writers lock, readers validate
 	
 	/**
 	 * Constructs a new cargo manifest in preparation for a voyage.
@@ -69,15 +103,65 @@ public class CargoManifest {
 	 */
 	public CargoManifest(Integer numStacks, Integer maxHeight, Integer maxWeight)
 	throws ManifestException {
-		if (numStacks <= 0 || maxHeight <= 0 || maxWeight <= 0)
-			throw new ManifestException("Numbers must not be negative");
-		
-		manifest = new ArrayList<ArrayList<FreightContainer>>(numStacks);
-		for (int i = 0; i < numStacks; i++)
-			manifest.add(new ArrayList<FreightContainer>());
+		this(new ObjectStackStore(checkParameters(numStacks, maxHeight, maxWeight)), maxHeight, maxWeight);
+	}
+
+	/**
+	 * Constructs a cargo manifest that keeps its stacks in the given
+	 * store.  Any containers already in the store are taken to be on
+	 * board, and are indexed.
+	 * 
+	 * @param store a store with the number of stacks wanted
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * @throws IllegalArgumentException if the containers in the store
+	 * break the rules
+	 */
+	CargoManifest(StackStore store, int maxHeight, int maxWeight) {
+		int numStacks = store.numStacks();
+		manifest = store;
 		this.maxHeight = maxHeight;
 		this.maxWeight = maxWeight;
 		this.currentWeight = 0;
+		this.positions = new CodeIndex(numStacks);
+		this.space = new StackPlacement(numStacks, maxHeight);
+		this.stackVersions = new long[numStacks];
+		this.stackWeights = new int[numStacks];
+		this.types = STANDARD_TYPES;
+		this.typeCounts = new int[types.length];
+		this.typeWeights = new int[types.length];
+		this.categoryCounts = new int[MAX_CATEGORY + 1];
+		for (int i = 0; i < numStacks; i++) {
+			int height = store.height(i);
+			if (height < 0 || height > maxHeight)
+				throw new IllegalArgumentException("Stack " + i + " is too high");
+			for (int j = 0; j < height; j++) {
+				long code = store.codeAt(i, j);
+				if (positions.contains(code))
+					throw new IllegalArgumentException("Container " + store.containerAt(i, j).getCode()
+							+ " appears twice");
+				positions.put(code, i, j);
+				currentWeight += store.weightAt(i, j);
+				tally(i, store.typeOf(i), store.weightAt(i, j), store.detailAt(i, j), 1);
+			}
+			if (height > 0)
+				space.update(i, store.typeOf(i), height);
+		}
+		if (currentWeight > maxWeight)
+			throw new IllegalArgumentException("The containers exceed the ship's weight limit");
+	}
+
+	/**
+	 * Checks the parameters of a new manifest.
+	 * 
+	 * @return the number of stacks
+	 * @throws ManifestException if any parameter is not positive
+	 */
+	static int checkParameters(Integer numStacks, Integer maxHeight, Integer maxWeight)
+	throws ManifestException {
+		if (numStacks <= 0 || maxHeight <= 0 || maxWeight <= 0)
+			throw new ManifestException("Numbers must not be negative");
+		return numStacks;
 	}
 
 	/**
@@ -91,34 +175,162 @@ public class CargoManifest {
 	 * container
 	 */
 	public void loadContainer(FreightContainer newContainer) throws ManifestException {
+		ManifestOutcome outcome = tryLoadContainer(newContainer);
+		if (outcome != ManifestOutcome.LOADED)
+			throw new ManifestException(outcome.getMessage());
+	}
+
+	/**
+	 * Loads a freight container onto the ship if it can be accommodated
+	 * within the five rules set by the captain, reporting a rejection
+	 * through the returned outcome rather than an exception.  This is
+	 * intended for callers, such as planning simulations, for which
+	 * rejections are routine.
+	 * 
+	 * @param newContainer the new freight container to be loaded
+	 * @return <code>LOADED</code> if the container was loaded; otherwise
+	 * <code>OVERWEIGHT</code>, <code>DUPLICATE</code> or <code>NO_SPACE</code>,
+	 * in which case the manifest is unchanged
+	 */
+	public ManifestOutcome tryLoadContainer(FreightContainer newContainer) {
+		ManifestMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		ManifestLoadEvent event = ManifestLoadEvent.start();
+		ManifestOutcome outcome;
+		long stamp = lock.writeLock();
+		try {
+			outcome = load(newContainer, event);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		if (event != null)
+			event.finish(newContainer, outcome);
+		if (metrics != null)
+			metrics.recordLoad(outcome, System.nanoTime() - start);
+		return outcome;
+	}
+
+	private ManifestOutcome load(FreightContainer newContainer, ManifestLoadEvent event) {
+		manifest.checkStorable(newContainer);
+		
 		// check weight
 		if (currentWeight + newContainer.getGrossWeight() > maxWeight)
-			throw new ManifestException("Adding this container would exceed the ship's weight limit");
+			return ManifestOutcome.OVERWEIGHT;
 		
 		// check exist
-		if (whichStack(newContainer.getCode()) != null)
-			throw new ManifestException("A container with the same code is already on board");
+		if (positions.contains(newContainer.getCode().asLong()))
+			return ManifestOutcome.DUPLICATE;
 		
 		// load container
-		for (int i = 0; i < manifest.size(); i++){
-			ArrayList<FreightContainer> currentStack = manifest.get(i);
-			if (currentStack.isEmpty()){
-				currentStack.add(newContainer);
-				currentWeight += newContainer.getGrossWeight(); 
-				return;
+		int stackNo = space.findStack(newContainer.getClass());
+		if (stackNo < 0) // no suitable space can be found
+			return ManifestOutcome.NO_SPACE;
+		push(stackNo, newContainer);
+		if (event != null) {
+			event.stack = stackNo;
+			event.height = manifest.height(stackNo) - 1;
+		}
+		return ManifestOutcome.LOADED;
+	}
+
+	/**
+	 * Loads a batch of freight containers onto the ship, in the order
+	 * given, as though each were loaded by <code>loadContainer</code>.
+	 * The batch is loaded as a whole or not at all: the total weight is
+	 * checked once, duplicates are checked against the containers on board
+	 * and within the batch before anything is moved, and if any container
+	 * cannot be placed those already placed are unloaded again.  For
+	 * metrics and flight recording the batch counts as a single load.
+	 * 
+	 * @param newContainers the freight containers to be loaded
+	 * @return where each container was put, in the order given
+	 * @throws ManifestException if adding the batch would exceed the ship's
+	 * weight limit; if a container with the same code is already on board or
+	 * appears twice in the batch; or if no suitable space can be found for
+	 * every container, in which case the manifest is unchanged
+	 */
+	public List<Placement> loadContainers(List<? extends FreightContainer> newContainers)
+	throws ManifestException {
+		ManifestMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		ManifestLoadEvent event = newContainers.isEmpty() ? null : ManifestLoadEvent.start();
+		ArrayList<Placement> placements = new ArrayList<Placement>(newContainers.size());
+		FreightContainer[] rejected = new FreightContainer[1];
+		ManifestOutcome outcome;
+		long stamp = lock.writeLock();
+		try {
+			outcome = loadAll(newContainers, placements, rejected);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		
+		// a batch is recorded as one load: of the container that was
+		// rejected, or of the last one placed
+		if (!newContainers.isEmpty()) {
+			if (event != null) {
+				if (outcome == ManifestOutcome.LOADED) {
+					Placement last = placements.get(placements.size() - 1);
+					event.stack = last.getStackNo();
+					event.height = last.getHeight();
+					event.finish(last.getContainer(), outcome);
+				} else
+					event.finish(rejected[0], outcome);
 			}
-			else if (currentStack.size() < maxHeight){
-				FreightContainer topContainer = currentStack.get(currentStack.size()-1);
-				if (topContainer.getClass() == newContainer.getClass()){
-					currentStack.add(newContainer);
-					currentWeight += newContainer.getGrossWeight();
-					return;
-				}
+			if (metrics != null)
+				metrics.recordLoad(outcome, System.nanoTime() - start);
+		}
+		if (outcome == ManifestOutcome.OVERWEIGHT)
+			throw new ManifestException("Adding these containers would exceed the ship's weight limit");
+		if (outcome != ManifestOutcome.LOADED)
+			throw new ManifestException(outcome.getMessage() + " (" + rejected[0].getCode() + ")");
+		return placements;
+	}
+
+	private ManifestOutcome loadAll(List<? extends FreightContainer> newContainers,
+			List<Placement> placements, FreightContainer[] rejected) {
+		// check total weight
+		long batchWeight = 0;
+		for (FreightContainer newContainer : newContainers) {
+			batchWeight += newContainer.getGrossWeight();
+			if (currentWeight + batchWeight > maxWeight) {
+				rejected[0] = newContainer;
+				return ManifestOutcome.OVERWEIGHT;
+			}
+		}
+		
+		// check exist, on board or earlier in the batch
+		CodeIndex batchCodes = new CodeIndex(newContainers.size());
+		for (FreightContainer newContainer : newContainers) {
+			manifest.checkStorable(newContainer);
+			long code = newContainer.getCode().asLong();
+			if (positions.contains(code) || batchCodes.contains(code)) {
+				rejected[0] = newContainer;
+				return ManifestOutcome.DUPLICATE;
 			}
+			batchCodes.put(code, 0, 0);
 		}
 		
-		// no suitable space can be found
-		throw new ManifestException("No suitable space can be found for this container");
+		// load containers, remembering each stack's version before the push
+		long[] versions = new long[newContainers.size()];
+		for (FreightContainer newContainer : newContainers) {
+			int stackNo = space.findStack(newContainer.getClass());
+			if (stackNo < 0) {
+				// no suitable space, so take the batch off again, top first,
+				// leaving each stack as it was, version included
+				for (int i = placements.size() - 1; i >= 0; i--) {
+					Placement placement = placements.get(i);
+					unload(placement.getContainer().getCode().asLong(), null);
+					stackVersions[placement.getStackNo()] = versions[i];
+				}
+				placements.clear();
+				rejected[0] = newContainer;
+				return ManifestOutcome.NO_SPACE;
+			}
+			versions[placements.size()] = stackVersions[stackNo];
+			placements.add(new Placement(newContainer, stackNo, manifest.height(stackNo)));
+			push(stackNo, newContainer);
+		}
+		return ManifestOutcome.LOADED;
 	}
 
 	/**
@@ -131,21 +343,207 @@ public class CargoManifest {
 	 * the ship at all)
 	 */
 	public void unloadContainer(ContainerCode containerId) throws ManifestException {
-		Integer stackNo = whichStack(containerId);
-		if (stackNo == null)
-			throw new ManifestException("No such container");
+		ManifestOutcome outcome = tryUnloadContainer(containerId);
+		if (outcome != ManifestOutcome.UNLOADED)
+			throw new ManifestException(outcome.getMessage());
+	}
+
+	/**
+	 * Unloads a particular container from the ship, provided that
+	 * it is accessible, identifying it by its packed code.
+	 * 
+	 * @param packedCode the packed code of the container to be unloaded
+	 * @throws ManifestException if the container is not accessible because
+	 * it's not on the top of a stack (including the case where it's not on board
+	 * the ship at all)
+	 * @see ContainerCode#asLong()
+	 */
+	public void unloadContainer(long packedCode) throws ManifestException {
+		ManifestOutcome outcome = tryUnloadContainer(packedCode);
+		if (outcome != ManifestOutcome.UNLOADED)
+			throw new ManifestException(outcome.getMessage());
+	}
+
+	/**
+	 * Unloads a particular container from the ship if it is accessible,
+	 * reporting a rejection through the returned outcome rather than an
+	 * exception.
+	 * 
+	 * @param containerId the code of the container to be unloaded
+	 * @return <code>UNLOADED</code> if the container was unloaded; otherwise
+	 * <code>NOT_FOUND</code> or <code>NOT_ACCESSIBLE</code>, in which case
+	 * the manifest is unchanged
+	 */
+	public ManifestOutcome tryUnloadContainer(ContainerCode containerId) {
+		if (containerId == null)
+			return ManifestOutcome.NOT_FOUND;
+		return tryUnloadContainer(containerId.asLong());
+	}
+
+	/**
+	 * Unloads a particular container, identified by its packed code, if
+	 * it is accessible, reporting a rejection through the returned outcome
+	 * rather than an exception.
+	 * 
+	 * @param packedCode the packed code of the container to be unloaded
+	 * @return <code>UNLOADED</code> if the container was unloaded; otherwise
+	 * <code>NOT_FOUND</code> or <code>NOT_ACCESSIBLE</code>, in which case
+	 * the manifest is unchanged
+	 * @see ContainerCode#asLong()
+	 */
+	public ManifestOutcome tryUnloadContainer(long packedCode) {
+		ManifestMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		ManifestUnloadEvent event = ManifestUnloadEvent.start();
+		ManifestOutcome outcome;
+		long stamp = lock.writeLock();
+		try {
+			outcome = unload(packedCode, event);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		if (event != null)
+			event.finish(packedCode, outcome);
+		if (metrics != null)
+			metrics.recordUnload(outcome, System.nanoTime() - start);
+		return outcome;
+	}
+
+	private ManifestOutcome unload(long packedCode, ManifestUnloadEvent event) {
+		int stackNo = positions.stackOf(packedCode);
+		if (stackNo < 0)
+			return ManifestOutcome.NOT_FOUND;
 		
 		// check if the container is on top of a stack
-		Integer height = howHigh(containerId);
-		if (height < manifest.get(stackNo).size()-1)
-			throw new ManifestException("The container is not accessible");
+		int height = positions.heightOf(packedCode);
+		if (event != null) {
+			event.stack = stackNo;
+			event.height = height;
+		}
+		if (height < manifest.height(stackNo)-1)
+			return ManifestOutcome.NOT_ACCESSIBLE;
 		
 		// unload it
-		FreightContainer removedContainer = manifest.get(stackNo).remove(height.intValue());
-		currentWeight -= removedContainer.getGrossWeight();
+		int weight = manifest.weightAt(stackNo, height);
+		Class<?> type = manifest.typeOf(stackNo);
+		tally(stackNo, type, weight, manifest.detailAt(stackNo, height), -1);
+		manifest.pop(stackNo);
+		positions.remove(packedCode);
+		if (indexes != null)
+			indexes.remove(packedCode);
+		currentWeight -= weight;
+		stackVersions[stackNo]++;
+		space.update(stackNo, type, manifest.height(stackNo));
+		return ManifestOutcome.UNLOADED;
+	}
+
+	/**
+	 * Puts a container on top of the given stack, keeping the weight
+	 * total and the position index up to date.
+	 * 
+	 * @param stackNo the stack to put the container on
+	 * @param newContainer the container to be loaded
+	 */
+	private void push(int stackNo, FreightContainer newContainer) {
+		positions.put(newContainer.getCode().asLong(), stackNo, manifest.height(stackNo));
+		manifest.push(stackNo, newContainer);
+		currentWeight += newContainer.getGrossWeight();
+		stackVersions[stackNo]++;
+		space.update(stackNo, newContainer.getClass(), manifest.height(stackNo));
+		tally(stackNo, newContainer.getClass(), newContainer.getGrossWeight(),
+				ContainerRecords.detailOf(newContainer), 1);
+		if (indexes != null)
+			indexes.add(newContainer);
+	}
+
+
+	/**
+	 * Adds a container to the running totals, or takes it away.
+	 * 
+	 * @param stackNo the container's stack
+	 * @param type the container's class
+	 * @param weight the container's gross weight
+	 * @param detail the container's detail, as for <code>ContainerRecords.detailOf</code>
+	 * @param sign 1 for a container loaded, -1 for one unloaded
+	 */
+	private void tally(int stackNo, Class<?> type, int weight, int detail, int sign) {
+		stackWeights[stackNo] += sign * weight;
+		int typeId = typeId(type);
+		typeCounts[typeId] += sign;
+		typeWeights[typeId] += sign * weight;
+		if (DangerousGoodsContainer.class.isAssignableFrom(type) && detail > 0 && detail <= MAX_CATEGORY)
+			categoryCounts[detail] += sign;
+	}
+
+	/**
+	 * Returns the id of a container class, which indexes the per-type
+	 * totals, giving the class the next id if it has not been seen.
+	 * 
+	 * @param type the container's class
+	 * @return the class's type id
+	 */
+	private int typeId(Class<?> type) {
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == type)
+				return i;
+		}
+		int typeId = types.length;
+		Class<?>[] more = Arrays.copyOf(types, typeId + 1);
+		more[typeId] = type;
+		typeCounts = Arrays.copyOf(typeCounts, typeId + 1);
+		typeWeights = Arrays.copyOf(typeWeights, typeId + 1);
+		types = more;
+		return typeId;
+	}
+
+	/**
+	 * Returns a copy of every stack, bottom first, taken at a single
+	 * moment.  This is for writing a snapshot of the manifest.
+	 * 
+	 * @return the containers in each stack
+	 */
+	FreightContainer[][] copyStacks() {
+		long stamp = lock.readLock();
+		try {
+			FreightContainer[][] stacks = new FreightContainer[manifest.numStacks()][];
+			for (int i = 0; i < stacks.length; i++)
+				stacks[i] = copyStack(i);
+			return stacks;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the total weight of the containers on board.
+	 * @return the current weight (in tonnes)
+	 */
+	int getCurrentWeight() {
+		long stamp = lock.readLock();
+		try {
+			return currentWeight;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the maximum allowable height of any stack.
+	 * @return the maximum height
+	 */
+	int getMaxHeight() {
+		return maxHeight;
 	}
 
-	
+	/**
+	 * Returns the maximum weight of containers allowed on board.
+	 * @return the maximum weight (in tonnes)
+	 */
+	int getMaxWeight() {
+		return maxWeight;
+	}
+
+
 	/**
 	 * Returns which stack holds a particular container, if any.  The
 	 * container of interest is identified by its unique
@@ -157,13 +555,49 @@ public class CargoManifest {
 	 * if the container is not on board
 	 */
 	public Integer whichStack(ContainerCode queryContainer) {
-		for (int i = 0; i < manifest.size(); i++){
-			ArrayList<FreightContainer> currentStack = manifest.get(i);
-			for (int j = 0; j < currentStack.size(); j++)
-				if (currentStack.get(j).getCode().equals(queryContainer)) // found
-					return i;
+		if (queryContainer == null)
+			return null;
+		int stackNo = stackOf(queryContainer.asLong());
+		if (stackNo < 0)
+			return null; // not found
+		return stackNo;
+	}
+
+	/**
+	 * Returns which stack holds a particular container, identified by
+	 * its packed code.  Unlike <code>whichStack</code> this does not box
+	 * its result.
+	 * 
+	 * @param packedCode the packed code of the container of interest
+	 * @return the number of the stack with the container in it, or -1
+	 * if the container is not on board
+	 * @see ContainerCode#asLong()
+	 */
+	public int stackOf(long packedCode) {
+		ManifestMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		ManifestFindEvent event = ManifestFindEvent.start();
+		long stamp = lock.tryOptimisticRead();
+		int stackNo;
+		try {
+			stackNo = positions.stackOf(packedCode);
+		} catch (RuntimeException e) { // torn by a concurrent change
+			stackNo = -1;
+			stamp = 0;
 		}
-		return null; // not found
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				stackNo = positions.stackOf(packedCode);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		if (event != null)
+			event.finish(packedCode, stackNo, -1);
+		if (metrics != null)
+			metrics.recordFind(System.nanoTime() - start);
+		return stackNo;
 	}
 
 	
@@ -180,22 +614,177 @@ public class CargoManifest {
 	 * if the container is not on board
 	 */
 	public Integer howHigh(ContainerCode queryContainer) {
-		Integer stackNo = whichStack(queryContainer);
-		if (stackNo == null)
+		if (queryContainer == null)
+			return null;
+		int height = heightOf(queryContainer.asLong());
+		if (height < 0)
 			return null; // not found
-		
-		Integer height = null;
-		ArrayList<FreightContainer> currentStack = manifest.get(stackNo);
-		for (int j = 0; j < currentStack.size(); j++){
-			if (currentStack.get(j).getCode().equals(queryContainer)){ // found
-				height = j;
-				break;
-			}			
+		return height;
+	}
+
+	/**
+	 * Returns how high in its stack a particular container is, identified
+	 * by its packed code.  Unlike <code>howHigh</code> this does not box
+	 * its result.
+	 * 
+	 * @param packedCode the packed code of the container of interest
+	 * @return the container's height in the stack, or -1 if the container
+	 * is not on board
+	 * @see ContainerCode#asLong()
+	 */
+	public int heightOf(long packedCode) {
+		ManifestMetrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		ManifestFindEvent event = ManifestFindEvent.start();
+		long stamp = lock.tryOptimisticRead();
+		int height;
+		try {
+			height = positions.heightOf(packedCode);
+		} catch (RuntimeException e) { // torn by a concurrent change
+			height = -1;
+			stamp = 0;
 		}
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				height = positions.heightOf(packedCode);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		if (event != null)
+			event.finish(packedCode, -1, height);
+		if (metrics != null)
+			metrics.recordFind(System.nanoTime() - start);
 		return height;
 	}
 
 
+	/**
+	 * Returns every container on board of the given class, such as
+	 * <code>RefrigeratedContainer.class</code>, in no particular order.
+	 * <p>
+	 * This and the other queries below use secondary indexes, which are
+	 * built the first time any of them is called and then kept up to date
+	 * as containers are loaded and unloaded.  A query therefore takes time
+	 * proportional to the number of containers it finds, not the number on
+	 * board, and a manifest that is never queried pays nothing for them.
+	 * 
+	 * @param type the class of container wanted
+	 * @return the containers of that class
+	 */
+	public List<FreightContainer> containersOfType(Class<? extends FreightContainer> type) {
+		long stamp = readIndexes();
+		try {
+			return collect(indexes.byType(), indexes.typeKey(type));
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns every container on board belonging to the given owner, in
+	 * no particular order.
+	 * 
+	 * @param ownerCode the owner's three-letter code, e.g., "MSC"
+	 * @return the owner's containers
+	 * @throws IllegalArgumentException if the code is not three upper-case letters
+	 */
+	public List<FreightContainer> containersOfOwner(String ownerCode) {
+		if (ownerCode == null || ownerCode.length() != 3)
+			throw new IllegalArgumentException("An owner code must be three upper-case letters");
+		int key = 0;
+		for (int i = 0; i < 3; i++) {
+			char letter = ownerCode.charAt(i);
+			if (letter < 'A' || letter > 'Z')
+				throw new IllegalArgumentException("An owner code must be three upper-case letters");
+			key = key * 26 + (letter - 'A');
+		}
+		long stamp = readIndexes();
+		try {
+			return collect(indexes.byOwner(), key);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns every container on board whose gross weight is within the
+	 * given range, lightest first.
+	 * 
+	 * @param minWeight the least gross weight wanted (in tonnes)
+	 * @param maxWeight the greatest gross weight wanted (in tonnes)
+	 * @return the containers in the range
+	 */
+	public List<FreightContainer> containersWeighing(int minWeight, int maxWeight) {
+		long stamp = readIndexes();
+		try {
+			List<FreightContainer> found = new ArrayList<FreightContainer>();
+			for (int weight = Math.max(minWeight, 0); weight <= maxWeight && weight <= MAX_GROSS_WEIGHT; weight++)
+				addAll(found, indexes.byWeight(), weight);
+			return found;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns every dangerous goods container on board of the given
+	 * category, in no particular order.
+	 * 
+	 * @param category the dangerous goods category (1-9)
+	 * @return the containers of that category
+	 */
+	public List<FreightContainer> dangerousGoodsOfCategory(int category) {
+		long stamp = readIndexes();
+		try {
+			return collect(indexes.byCategory(), category);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Takes the read lock for a query, first building the secondary
+	 * indexes from the stacks if no query has been made before.
+	 * 
+	 * @return the read stamp
+	 */
+	private long readIndexes() {
+		long stamp = lock.readLock();
+		if (indexes != null)
+			return stamp;
+		lock.unlockRead(stamp);
+		stamp = lock.writeLock();
+		try {
+			if (indexes == null) {
+				ManifestIndexes built = new ManifestIndexes(positions.size());
+				for (int stackNo = 0; stackNo < manifest.numStacks(); stackNo++) {
+					for (int height = 0; height < manifest.height(stackNo); height++)
+						built.add(manifest.containerAt(stackNo, height));
+				}
+				indexes = built;
+			}
+			return lock.tryConvertToReadLock(stamp);
+		} catch (RuntimeException e) {
+			lock.unlockWrite(stamp);
+			throw e;
+		}
+	}
+
+	private List<FreightContainer> collect(CodeBuckets buckets, int key) {
+		List<FreightContainer> found = new ArrayList<FreightContainer>(buckets.size(key));
+		addAll(found, buckets, key);
+		return found;
+	}
+
+	private void addAll(List<FreightContainer> found, CodeBuckets buckets, int key) {
+		for (int i = 0; i < buckets.size(key); i++) {
+			long code = buckets.codeAt(key, i);
+			found.add(manifest.containerAt(positions.stackOf(code), positions.heightOf(code)));
+		}
+	}
+
 	/**
 	 * Returns the contents of a particular stack as an array,
 	 * starting with the bottommost container at position zero in the array.
@@ -205,44 +794,386 @@ public class CargoManifest {
 	 * @throws ManifestException if there is no such stack on the ship
 	 */
 	public FreightContainer[] toArray(Integer stackNo) throws ManifestException {
-		if (stackNo == null || stackNo < 0 || stackNo >= manifest.size())
+		if (stackNo == null || stackNo < 0 || stackNo >= manifest.numStacks())
 			throw new ManifestException("There is no such stack on the ship");
 		
-		ArrayList<FreightContainer> currentStack = manifest.get(stackNo);
-		FreightContainer[] contents = new FreightContainer[currentStack.size()];
-		contents = currentStack.toArray(contents);
+		long stamp = readsOptimistically() ? lock.tryOptimisticRead() : 0;
+		FreightContainer[] contents;
+		try {
+			contents = copyStack(stackNo);
+		} catch (RuntimeException e) { // torn by a concurrent change
+			contents = null;
+			stamp = 0;
+		}
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				contents = copyStack(stackNo);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return contents;
+	}
+
+	private FreightContainer[] copyStack(int stackNo) {
+		FreightContainer[] contents = new FreightContainer[manifest.height(stackNo)];
+		for (int height = 0; height < contents.length; height++)
+			contents[height] = manifest.containerAt(stackNo, height);
 		return contents;
 	}
 
+	/**
+	 * Passes each container in a stack, bottom first, to the given action
+	 * without copying the stack.  The manifest is read-locked while the
+	 * action runs, so the action must not change the manifest, which would
+	 * deadlock, and anything that blocks in it holds up every load and
+	 * unload until it returns.  For slow work, take a copy with
+	 * <code>toArray</code> instead.
+	 * 
+	 * @param stackNo the number of the stack of interest
+	 * @param action what to do with each container
+	 * @throws ManifestException if there is no such stack on the ship
+	 */
+	public void forEachInStack(int stackNo, Consumer<? super FreightContainer> action)
+	throws ManifestException {
+		if (stackNo < 0 || stackNo >= manifest.numStacks())
+			throw new ManifestException("There is no such stack on the ship");
+		
+		long stamp = lock.readLock();
+		try {
+			for (int height = 0; height < manifest.height(stackNo); height++)
+				action.accept(manifest.containerAt(stackNo, height));
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Passes every container on board to the given visitor, stack by
+	 * stack and bottom first, without copying anything.  The manifest is
+	 * read-locked while the visitor runs, so the visitor must not change
+	 * the manifest, which would deadlock, and a slow visitor holds up
+	 * every load and unload until it returns.  For slow work, use
+	 * <code>spliterator</code>, which takes no lock.
+	 * 
+	 * @param visitor what to do with each container
+	 */
+	public void forEachContainer(ContainerVisitor visitor) {
+		long stamp = lock.readLock();
+		try {
+			for (int stackNo = 0; stackNo < manifest.numStacks(); stackNo++) {
+				for (int height = 0; height < manifest.height(stackNo); height++)
+					visitor.visit(stackNo, height, manifest.containerAt(stackNo, height));
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns a spliterator over every container on board, stack by stack
+	 * and bottom first, which reads the stacks in place.  It splits by
+	 * ranges of stacks, so it can drive a parallel stream.
+	 * <p>
+	 * The spliterator takes no lock.  It fails with a
+	 * <code>ConcurrentModificationException</code> if the manifest is
+	 * changed after it starts.
+	 * 
+	 * @return a spliterator over the containers on board
+	 */
+	public Spliterator<FreightContainer> spliterator() {
+		return new ContainerSpliterator(0, manifest.numStacks(), -1L);
+	}
+
+	/**
+	 * Walks a range of stacks.  The stamp of an optimistic read is taken
+	 * when the walk starts and checked before each container is handed
+	 * out, so nothing is ever seen from a manifest part-way through a
+	 * change.
+	 */
+	private class ContainerSpliterator implements Spliterator<FreightContainer> {
+		private int stackNo; // the stack being walked
+		private int height; // the height of the next container in it
+		private int end; // the stack after the last one to walk
+		private long estimate;
+		private long stamp; // 0 until the walk starts
+
+		private ContainerSpliterator(int stackNo, int end, long estimate) {
+			this.stackNo = stackNo;
+			this.end = end;
+			this.estimate = estimate;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super FreightContainer> action) {
+			if (stamp == 0)
+				stamp = startRead();
+			FreightContainer container = null;
+			try {
+				while (stackNo < end && container == null) {
+					if (height < manifest.height(stackNo)) {
+						container = manifest.containerAt(stackNo, height++);
+					} else {
+						stackNo++;
+						height = 0;
+					}
+				}
+			} catch (RuntimeException e) { // torn by a concurrent change
+				container = null;
+				stackNo = end;
+			}
+			if (!lock.validate(stamp))
+				throw new ConcurrentModificationException("The manifest was changed during the walk");
+			if (container == null)
+				return false;
+			action.accept(container);
+			return true;
+		}
+
+		@Override
+		public Spliterator<FreightContainer> trySplit() {
+			int first = height == 0 ? stackNo : stackNo + 1; // the first stack not yet started
+			int mid = (first + end) >>> 1;
+			if (mid <= first || mid <= stackNo)
+				return null;
+			ContainerSpliterator prefix = new ContainerSpliterator(stackNo, mid, estimateSize() / 2);
+			prefix.height = height;
+			prefix.stamp = stamp;
+			stackNo = mid;
+			height = 0;
+			estimate -= prefix.estimate;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			if (estimate < 0)
+				estimate = positions.size(); // racy, but only an estimate
+			return estimate;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL;
+		}
+	}
+
+	/**
+	 * Returns true if readers may copy from the store without holding the
+	 * lock, relying on the stamp to discard anything torn by a change.  A
+	 * manifest whose store can be freed while the manifest is still
+	 * reachable says no, since an optimistic reader could otherwise touch
+	 * memory that has already been freed; its readers take the read lock.
+	 */
+	boolean readsOptimistically() {
+		return true;
+	}
+
+	/**
+	 * Takes the write lock, for a subclass that must keep every reader
+	 * and writer out while it works on the store directly.
+	 * 
+	 * @return the write stamp
+	 */
+	final long writeLock() {
+		return lock.writeLock();
+	}
+
+	/**
+	 * Releases the write lock taken by <code>writeLock</code>.
+	 * 
+	 * @param stamp the write stamp
+	 */
+	final void unlockWrite(long stamp) {
+		lock.unlockWrite(stamp);
+	}
+
+	/**
+	 * Returns the stamp of an optimistic read that begins now, waiting
+	 * for any change in progress to finish.
+	 */
+	private long startRead() {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp == 0)
+			stamp = lock.tryConvertToOptimisticRead(lock.readLock());
+		return stamp;
+	}
+
 	/**
 	 * Returns the number of stacks
 	 * @return
 	 */
 	public int getNumStacks(){
-		return manifest.size();
+		return manifest.numStacks();
+	}
+
+	/**
+	 * Returns how many times a particular stack has changed.  A display
+	 * can remember the version of each stack it has drawn and redraw
+	 * only the stacks whose version has since moved on.
+	 * 
+	 * @param stackNo the number of the stack of interest
+	 * @return the number of containers ever put on or taken off the stack
+	 * @throws ManifestException if there is no such stack on the ship
+	 */
+	public long getStackVersion(int stackNo) throws ManifestException {
+		if (stackNo < 0 || stackNo >= stackVersions.length)
+			throw new ManifestException("There is no such stack on the ship");
+		
+		long stamp = lock.tryOptimisticRead();
+		long version = stackVersions[stackNo];
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				version = stackVersions[stackNo];
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return version;
+	}
+	
+	/**
+	 * Starts or stops measuring this manifest's operations.  While a
+	 * metrics object is set, every load, unload and find is counted and
+	 * timed in it; with none set, nothing is measured and nothing is
+	 * spent on measuring.
+	 * 
+	 * @param metrics where to record the measurements, or <code>null</code>
+	 * to stop measuring
+	 */
+	public void setMetrics(ManifestMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns where this manifest's operations are being measured.
+	 * 
+	 * @return the metrics object, or <code>null</code> if none is set
+	 */
+	public ManifestMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the manifest's totals as they are at this moment.  The
+	 * totals are kept up to date by each load and unload, so this only
+	 * copies them: it takes no lock unless a change happens while it is
+	 * copying, and takes time proportional to the number of stacks, not
+	 * the number of containers.
+	 * 
+	 * @return a snapshot of the totals
+	 */
+	public ManifestStatistics getStatistics() {
+		long stamp = readsOptimistically() ? lock.tryOptimisticRead() : 0;
+		ManifestStatistics statistics;
+		try {
+			statistics = copyStatistics();
+		} catch (RuntimeException e) { // torn by a concurrent change
+			statistics = null;
+			stamp = 0;
+		}
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				statistics = copyStatistics();
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return statistics;
+	}
+
+	private ManifestStatistics copyStatistics() {
+		int[] heights = new int[manifest.numStacks()];
+		for (int i = 0; i < heights.length; i++)
+			heights[i] = manifest.height(i);
+		Class<?>[] types = this.types; // read before the totals, which are never shorter
+		return new ManifestStatistics(maxHeight, maxWeight, positions.size(), currentWeight,
+				heights, stackWeights.clone(), types, typeCounts.clone(), typeWeights.clone(),
+				categoryCounts.clone());
 	}
 	
 	/* ***** toString methods added to support the GUI ***** */
 	
+	/**
+	 * Writes the manifest in the same form as <code>toString</code>
+	 * straight to the given destination, such as a <code>Writer</code>
+	 * for an export file.  The manifest is read-locked while it is
+	 * written, so that the output shows it at a single moment.
+	 * 
+	 * @param out where to write the manifest
+	 * @param toFind the container to mark, or <code>null</code>
+	 * @throws IOException if the destination cannot be written
+	 * @see ManifestRenderer
+	 */
+	public void appendTo(Appendable out, ContainerCode toFind) throws IOException {
+		long stamp = lock.readLock();
+		try {
+			for (int i = 0; i < manifest.numStacks(); ++i)
+				ManifestRenderer.appendStack(out, manifest, i, toFind);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Writes the line of <code>toString</code> for one stack, including
+	 * its newline, to the given destination.
+	 * 
+	 * @param out where to write the line
+	 * @param stackNo the number of the stack of interest
+	 * @param toFind the container to mark, or <code>null</code>
+	 * @throws IOException if the destination cannot be written
+	 * @throws ManifestException if there is no such stack on the ship
+	 */
+	public void appendStack(Appendable out, int stackNo, ContainerCode toFind)
+	throws IOException, ManifestException {
+		if (stackNo < 0 || stackNo >= manifest.numStacks())
+			throw new ManifestException("There is no such stack on the ship");
+		
+		long stamp = lock.readLock();
+		try {
+			ManifestRenderer.appendStack(out, manifest, stackNo, toFind);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
 	public String toString(ContainerCode toFind) {
-		//Some variables here are used and not declared. You can work it out 
-		String toReturn = "";
-		for (int i = 0; i < manifest.size(); ++i) {
-			ArrayList<FreightContainer> currentStack = manifest.get(i);
-			toReturn += "|";
-			for (int j = 0; j < currentStack.size(); ++j) {
-				if (toFind != null && currentStack.get(j).getCode().equals(toFind))
-					toReturn += "|*" + currentStack.get(j).getCode().toString() + "*|";
-				else
-					toReturn += "| " + currentStack.get(j).getCode().toString() + " |";
+		long stamp = readsOptimistically() ? lock.tryOptimisticRead() : 0;
+		String toReturn;
+		try {
+			toReturn = render(toFind);
+		} catch (RuntimeException e) { // torn by a concurrent change
+			toReturn = null;
+			stamp = 0;
+		}
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				toReturn = render(toFind);
+			} finally {
+				lock.unlockRead(stamp);
 			}
-			if (currentStack.size() == 0)
-				toReturn +=  "|  ||\n";
-			else
-				toReturn += "|\n";
 		}
 		return toReturn;
 	}
+	
+	private String render(ContainerCode toFind) {
+		int length = 0;
+		for (int i = 0; i < manifest.numStacks(); ++i)
+			length += ManifestRenderer.lineLength(manifest.height(i));
+		StringBuilder toReturn = new StringBuilder(length);
+		try {
+			for (int i = 0; i < manifest.numStacks(); ++i)
+				ManifestRenderer.appendStack(toReturn, manifest, i, toFind);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // cannot happen, StringBuilder does not throw
+		}
+		return toReturn.toString();
+	}
 
 	@Override
 	public String toString() {
@@ -0,0 +1,36 @@
+package asgn2Codes;
+
+/**
+ * The result of checking a candidate container code.  Each reason a
+ * code can be rejected has its own constant, carrying the same message
+ * that <code>ContainerCode</code>'s constructor reports in its
+ * <code>InvalidCodeException</code>.
+ * 
+ * @author yaman-n8719471
+ * @version 1.0
+ * @see ContainerCodeParser
+ */
+public enum CodeValidity {
+	
+	VALID("The container code is valid"),
+	WRONG_LENGTH("The container code is not eleven characters long"),
+	BAD_OWNER_CODE("The Owner Code does not consist of three upper-case letters"),
+	BAD_CATEGORY("The Category Identifier is not 'U'"),
+	BAD_SERIAL_NUMBER("The Serial Number does not consist of six digits"),
+	BAD_CHECK_DIGIT("The Check Digit is incorrect");
+	
+	private final String message;
+	
+	private CodeValidity(String message) {
+		this.message = message;
+	}
+	
+	/**
+	 * Returns a message describing this result.
+	 * 
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
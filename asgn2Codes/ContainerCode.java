@@ -1,5 +1,7 @@
 package asgn2Codes;
 
+import java.io.IOException;
+
 import asgn2Exceptions.InvalidCodeException;
 
 /* Note to self:
@@ -79,7 +81,16 @@ import asgn2Exceptions.InvalidCodeException;
  */ 
 public class ContainerCode {
 
-	private String code;
+	/* Packed codes are formed from the Owner Code (as a base-26 number), 
+	 * followed by the six-digit Serial Number and the Check Digit, so
+	 * the packed values of two codes compare in the same order as their
+	 * strings do.  The Category Identifier is always 'U' and is not stored.
+	 */
+	private static final long SERIAL_RANGE = 1000000L;
+	private static final long NUM_OWNER_CODES = 26L * 26L * 26L;
+	private static final long PACKED_LIMIT = NUM_OWNER_CODES * SERIAL_RANGE * 10L;
+	
+	private final long packed;
 
 	/**
 	 * Constructs a new container code.
@@ -91,48 +102,93 @@ public class ContainerCode {
 	 * of six digits; or if the Check Digit is incorrect.
 	 */
 	public ContainerCode(String code) throws InvalidCodeException {
-		// check length
-		if (code == null || code.length() != 11)
-			throw new InvalidCodeException("The container code is not eleven characters long");
-		
-		// check owner code
-		String ownerCode = code.substring(0, 3);
-		for (int i = 0; i < ownerCode.length(); i++){
-			if (!Character.isUpperCase(ownerCode.charAt(i)))
-				throw new InvalidCodeException("The Owner Code does not consist of three upper-case letters");
-		}
-		
-		// check Category Identifier is not 'U'
-		if (code.charAt(3) != 'U')
-			throw new InvalidCodeException("The Category Identifier is not 'U'");
-		
-		// check Serial Number does not consist of six digits
-		String serialNumber = code.substring(4, 10);
-		for (int i = 0; i < serialNumber.length(); i++){
-			if (!Character.isDigit(serialNumber.charAt(i)))
-				throw new InvalidCodeException("The Serial Number does not consist of six digits");
-		}
-		
-		// check the Check Digit		
-		// calculate sum
-		int sum = 0;
-		for (int i = 0; i < 10; i++){
-			char ch = code.charAt(i);
-			int value = 0;
-			if (Character.isUpperCase(ch)) // letter
-				value = ch-'A';
-			else // digit
-				value = ch-'0';
-			sum += value;
-		}
-						
-		int checkDigit = sum % 10;
-		
-		int lsd = code.charAt(10)-'0';
-		if (checkDigit != lsd)
-			throw new InvalidCodeException("The Check Digit is incorrect");
-		
-		this.code = code;
+		long result = ContainerCodeParser.parse(code);
+		if (result < 0)
+			throw new InvalidCodeException(ContainerCodeParser.validityOf(result).getMessage());
+		this.packed = result;
+	}
+	
+	/**
+	 * Constructs a container code from a value already known to be
+	 * a valid packed code.
+	 * 
+	 * @param packed the packed form of the code
+	 */
+	ContainerCode(long packed) {
+		this.packed = packed;
+	}
+	
+	
+	/**
+	 * Returns the container code with the given packed value, as
+	 * produced by <code>asLong</code> or <code>pack</code>.
+	 * 
+	 * @param packed the packed form of a container code
+	 * @return the corresponding container code
+	 * @throws InvalidCodeException if the value is not the packed form of
+	 * a valid container code
+	 */
+	public static ContainerCode valueOf(long packed) throws InvalidCodeException {
+		if (!isPacked(packed))
+			throw new InvalidCodeException("The value is not a packed container code");
+		return new ContainerCode(packed);
+	}
+	
+	/**
+	 * Converts a container code string to its packed 64-bit form.
+	 * 
+	 * @param code the container code as a string
+	 * @return the packed form of the code, which is never negative
+	 * @throws InvalidCodeException if the string is not a valid container code
+	 * (see the constructor for details)
+	 */
+	public static long pack(String code) throws InvalidCodeException {
+		long result = ContainerCodeParser.parse(code);
+		if (result < 0)
+			throw new InvalidCodeException(ContainerCodeParser.validityOf(result).getMessage());
+		return result;
+	}
+	
+	/**
+	 * Converts a packed container code back to its 11-character string.
+	 * 
+	 * @param packed the packed form of a container code
+	 * @return the container code as a string
+	 * @throws InvalidCodeException if the value is not the packed form of
+	 * a valid container code
+	 */
+	public static String unpack(long packed) throws InvalidCodeException {
+		return valueOf(packed).toString();
+	}
+	
+	/**
+	 * Returns true iff the given value is the packed form of a valid
+	 * container code, i.e., it is in range and its last decimal digit
+	 * is the correct Check Digit for the rest of the code.
+	 * 
+	 * @param packed a candidate packed code
+	 * @return true if the value can be unpacked, false otherwise
+	 */
+	public static boolean isPacked(long packed) {
+		if (packed < 0 || packed >= PACKED_LIMIT)
+			return false;
+		long rest = packed / 10;
+		int sum = 'U'-'A';
+		for (int i = 0; i < 6; i++, rest /= 10)
+			sum += (int)(rest % 10);
+		for (int i = 0; i < 3; i++, rest /= 26)
+			sum += (int)(rest % 26);
+		return sum % 10 == packed % 10;
+	}
+	
+	/**
+	 * Returns this code in packed 64-bit form.  Two codes are equal
+	 * iff their packed forms are equal.
+	 * 
+	 * @return the packed form of this code
+	 */
+	public long asLong() {
+		return packed;
 	}
 
 
@@ -141,7 +197,49 @@ public class ContainerCode {
 	 */
 	@Override
 	public String toString() {
-		return code;
+		char[] chars = new char[11];
+		long rest = packed;
+		chars[10] = (char)('0' + rest % 10);
+		rest /= 10;
+		for (int i = 9; i >= 4; i--, rest /= 10)
+			chars[i] = (char)('0' + rest % 10);
+		chars[3] = 'U';
+		for (int i = 2; i >= 0; i--, rest /= 26)
+			chars[i] = (char)('A' + rest % 26);
+		return new String(chars);
+	}
+
+
+	/**
+	 * Appends this code, in the same form as <code>toString</code>, to
+	 * the given destination without creating a string.
+	 * 
+	 * @param out where to append the code
+	 * @throws IOException if the destination cannot be written
+	 */
+	public void appendTo(Appendable out) throws IOException {
+		appendTo(packed, out);
+	}
+
+	/**
+	 * Appends the code with the given packed form, in the same form as
+	 * <code>toString</code>, without creating a code or a string.
+	 * 
+	 * @param packed the packed form of a valid code
+	 * @param out where to append the code
+	 * @throws IOException if the destination cannot be written
+	 * @see #isPacked(long)
+	 */
+	public static void appendTo(long packed, Appendable out) throws IOException {
+		long owner = packed / (SERIAL_RANGE * 10L);
+		out.append((char)('A' + owner / (26 * 26)));
+		out.append((char)('A' + owner / 26 % 26));
+		out.append((char)('A' + owner % 26));
+		out.append('U');
+		long serial = packed / 10 % SERIAL_RANGE;
+		for (long unit = SERIAL_RANGE / 10; unit > 0; unit /= 10)
+			out.append((char)('0' + serial / unit % 10));
+		out.append((char)('0' + packed % 10));
 	}
 
 	
@@ -159,9 +257,20 @@ public class ContainerCode {
 			return false;
 		if (obj.getClass() == ContainerCode.class){
 			ContainerCode other = (ContainerCode)obj;
-			return code.equals(other.code);
+			return packed == other.packed;
 		}
 		return false;
 	}
-}
 
+	
+	/**
+	 * Returns a hash code for this container code, consistent with
+	 * <code>equals</code>, so that codes can be used as keys in hash tables.
+	 * 
+	 * @return a hash code derived from the code's packed value
+	 */
+	@Override
+	public int hashCode() {
+		return (int)(packed ^ (packed >>> 32));
+	}
+}
@@ -0,0 +1,191 @@
+package asgn2Codes;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Validates and packs container codes without creating any objects,
+ * working directly on character sequences, ASCII byte arrays and
+ * byte buffers (as delivered by the gate readers).  The rules are those
+ * described in <code>ContainerCode</code>.
+ * <p>
+ * Each <code>parse</code> method returns a single <code>long</code>.
+ * For a valid code this is the code's packed form (see
+ * <code>ContainerCode.asLong</code>), which is never negative.  For an
+ * invalid code it is a negative value identifying the first rule
+ * broken, which can be decoded with <code>validityOf</code>.  Only once
+ * a code is known to be valid need a <code>ContainerCode</code> object be
+ * made from it, using <code>toCode</code>.
+ * <p>
+ * For example:
+ * <pre>
+ * long result = ContainerCodeParser.parse(bytes, offset, length);
+ * if (result &lt; 0)
+ *     rejected(ContainerCodeParser.validityOf(result));
+ * else
+ *     accepted(ContainerCodeParser.toCode(result));
+ * </pre>
+ * 
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+public final class ContainerCodeParser {
+	
+	/** The number of characters in a container code. */
+	public static final int LENGTH = 11;
+	
+	private static final int CHECK_DIGIT_POS = LENGTH - 1;
+	private static final CodeValidity[] VALIDITIES = CodeValidity.values();
+	
+	private ContainerCodeParser() {
+	}
+	
+	/**
+	 * Checks and packs a container code held as characters.
+	 * 
+	 * @param code the candidate container code
+	 * @return the packed code if it is valid, otherwise a negative result code
+	 */
+	public static long parse(CharSequence code) {
+		if (code == null || code.length() != LENGTH)
+			return failure(CodeValidity.WRONG_LENGTH);
+		
+		long packed = 0;
+		int sum = 0;
+		for (int i = 0; i < CHECK_DIGIT_POS; i++) {
+			int value = valueAt(i, code.charAt(i));
+			if (value < 0)
+				return value;
+			sum += value;
+			packed = accumulate(packed, i, value);
+		}
+		return finish(packed, sum, code.charAt(CHECK_DIGIT_POS));
+	}
+	
+	/**
+	 * Checks and packs a container code held as ASCII bytes in part of
+	 * an array.
+	 * 
+	 * @param bytes the array holding the candidate container code
+	 * @param offset the index of the code's first byte
+	 * @param length the number of bytes in the candidate code
+	 * @return the packed code if it is valid, otherwise a negative result code
+	 * @throws IndexOutOfBoundsException if the slice is not within the array
+	 */
+	public static long parse(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > bytes.length - length)
+			throw new IndexOutOfBoundsException("The slice is not within the array");
+		if (length != LENGTH)
+			return failure(CodeValidity.WRONG_LENGTH);
+		
+		long packed = 0;
+		int sum = 0;
+		for (int i = 0; i < CHECK_DIGIT_POS; i++) {
+			int value = valueAt(i, bytes[offset + i] & 0xFF);
+			if (value < 0)
+				return value;
+			sum += value;
+			packed = accumulate(packed, i, value);
+		}
+		return finish(packed, sum, bytes[offset + CHECK_DIGIT_POS] & 0xFF);
+	}
+	
+	/**
+	 * Checks and packs a container code held as ASCII bytes between a
+	 * buffer's position and its limit.  The buffer's position is not
+	 * changed.
+	 * 
+	 * @param buffer the buffer holding the candidate container code
+	 * @return the packed code if it is valid, otherwise a negative result code
+	 */
+	public static long parse(ByteBuffer buffer) {
+		if (buffer.remaining() != LENGTH)
+			return failure(CodeValidity.WRONG_LENGTH);
+		
+		int start = buffer.position();
+		long packed = 0;
+		int sum = 0;
+		for (int i = 0; i < CHECK_DIGIT_POS; i++) {
+			int value = valueAt(i, buffer.get(start + i) & 0xFF);
+			if (value < 0)
+				return value;
+			sum += value;
+			packed = accumulate(packed, i, value);
+		}
+		return finish(packed, sum, buffer.get(start + CHECK_DIGIT_POS) & 0xFF);
+	}
+	
+	/**
+	 * Decodes the result of one of the <code>parse</code> methods.
+	 * 
+	 * @param result a value returned by <code>parse</code>
+	 * @return <code>VALID</code> for a packed code, otherwise the first
+	 * rule the candidate code broke
+	 * @throws IllegalArgumentException if the result is negative but is not
+	 * one that <code>parse</code> returns
+	 */
+	public static CodeValidity validityOf(long result) {
+		if (result >= 0)
+			return CodeValidity.VALID;
+		if (result <= -VALIDITIES.length)
+			throw new IllegalArgumentException(result + " is not a parse result");
+		return VALIDITIES[(int) -result];
+	}
+	
+	/**
+	 * Makes a container code object from the result of one of the
+	 * <code>parse</code> methods.
+	 * 
+	 * @param result a value returned by <code>parse</code>
+	 * @return the container code, or <code>null</code> if the result
+	 * reports an invalid code or is not a valid packed code at all
+	 */
+	public static ContainerCode toCode(long result) {
+		if (!ContainerCode.isPacked(result))
+			return null;
+		return new ContainerCode(result);
+	}
+	
+	/**
+	 * Returns the numerical value of a character at a given position in
+	 * the code (not including the check digit), or a negative result code
+	 * if the character is not allowed there.
+	 */
+	private static int valueAt(int pos, int ch) {
+		if (pos < 3) { // Owner Code
+			if (ch < 'A' || ch > 'Z')
+				return failure(CodeValidity.BAD_OWNER_CODE);
+			return ch - 'A';
+		}
+		if (pos == 3) { // Category Identifier
+			if (ch != 'U')
+				return failure(CodeValidity.BAD_CATEGORY);
+			return ch - 'A';
+		}
+		if (ch < '0' || ch > '9') // Serial Number
+			return failure(CodeValidity.BAD_SERIAL_NUMBER);
+		return ch - '0';
+	}
+	
+	/**
+	 * Adds the value of a character to the packed code built so far.
+	 * Letters of the Owner Code are base-26 digits, the Category
+	 * Identifier is not stored and the Serial Number is decimal.
+	 */
+	private static long accumulate(long packed, int pos, int value) {
+		if (pos < 3)
+			return packed * 26 + value;
+		if (pos == 3)
+			return packed;
+		return packed * 10 + value;
+	}
+	
+	private static long finish(long packed, int sum, int checkDigit) {
+		if (checkDigit - '0' != sum % 10)
+			return failure(CodeValidity.BAD_CHECK_DIGIT);
+		return packed * 10 + (checkDigit - '0');
+	}
+	
+	private static int failure(CodeValidity validity) {
+		return -validity.ordinal();
+	}
+}
@@ -0,0 +1,128 @@
+package asgn2Manifests;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.CargoException;
+
+/**
+ * A stack store that keeps containers as primitive fields in parallel
+ * arrays rather than as objects.  Every stack has <code>maxHeight</code>
+ * slots, and stack <i>s</i> starts at slot <i>s</i> &times;
+ * <code>maxHeight</code>.  Each slot takes 12 bytes: an 8-byte packed
+ * code, a 1-byte weight, a 1-byte type number and a 2-byte detail (the
+ * dangerous goods category or the refrigerated temperature).  Container
+ * objects are made only when asked for.
+ * <p>
+ * A temperature must fit in a <code>short</code>, excluding
+ * <code>Short.MIN_VALUE</code>, which marks a temperature that is not set.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class ArrayStackStore implements StackStore {
+
+	/** The bytes used by each slot, whether or not it is occupied. */
+	static final int BYTES_PER_SLOT = 8 + 1 + 1 + 2;
+
+	private static final short NO_TEMPERATURE = Short.MIN_VALUE;
+
+	private final int maxHeight;
+	private final int[] heights;
+	private final long[] codes;
+	private final byte[] weights;
+	private final byte[] types;
+	private final short[] details;
+
+	/**
+	 * Constructs a store with the given number of empty stacks.
+	 *
+	 * @param numStacks the number of stacks
+	 * @param maxHeight the maximum height of any stack
+	 * @throws IllegalArgumentException if there would be more than
+	 * <code>Integer.MAX_VALUE</code> slots
+	 */
+	ArrayStackStore(int numStacks, int maxHeight) {
+		long slots = (long) numStacks * maxHeight;
+		if (slots > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many slots for one store: " + slots);
+		this.maxHeight = maxHeight;
+		heights = new int[numStacks];
+		codes = new long[(int) slots];
+		weights = new byte[(int) slots];
+		types = new byte[(int) slots];
+		details = new short[(int) slots];
+	}
+
+	@Override
+	public int numStacks() {
+		return heights.length;
+	}
+
+	@Override
+	public int height(int stackNo) {
+		return heights[stackNo];
+	}
+
+	@Override
+	public Class<?> typeOf(int stackNo) {
+		return ContainerRecords.classOf(types[stackNo * maxHeight]);
+	}
+
+	@Override
+	public long codeAt(int stackNo, int height) {
+		return codes[slot(stackNo, height)];
+	}
+
+	@Override
+	public int weightAt(int stackNo, int height) {
+		return weights[slot(stackNo, height)];
+	}
+
+	@Override
+	public int detailAt(int stackNo, int height) {
+		short detail = details[slot(stackNo, height)];
+		return detail == NO_TEMPERATURE ? ContainerRecords.NO_TEMPERATURE : detail;
+	}
+
+	@Override
+	public FreightContainer containerAt(int stackNo, int height) {
+		int slot = slot(stackNo, height);
+		int detail = details[slot] == NO_TEMPERATURE ? ContainerRecords.NO_TEMPERATURE : details[slot];
+		try {
+			return ContainerRecords.toContainer(codes[slot], types[slot], weights[slot], detail);
+		} catch (CargoException e) {
+			// only possible when racing a change, which the caller will detect
+			throw new IllegalStateException("Damaged container record", e);
+		}
+	}
+
+	@Override
+	public void checkStorable(FreightContainer container) {
+		ContainerRecords.typeOf(container);
+		int detail = ContainerRecords.detailOf(container);
+		if (detail != ContainerRecords.NO_TEMPERATURE && (detail <= NO_TEMPERATURE || detail > Short.MAX_VALUE))
+			throw new IllegalArgumentException("The temperature of " + container.getCode() + " is out of range");
+	}
+
+	@Override
+	public void push(int stackNo, FreightContainer container) {
+		int height = heights[stackNo];
+		int slot = slot(stackNo, height);
+		int detail = ContainerRecords.detailOf(container);
+		codes[slot] = container.getCode().asLong();
+		weights[slot] = container.getGrossWeight().byteValue();
+		types[slot] = ContainerRecords.typeOf(container);
+		details[slot] = detail == ContainerRecords.NO_TEMPERATURE ? NO_TEMPERATURE : (short) detail;
+		heights[stackNo] = height + 1;
+	}
+
+	@Override
+	public void pop(int stackNo) {
+		heights[stackNo]--;
+	}
+
+	private int slot(int stackNo, int height) {
+		if (height < 0 || height >= maxHeight)
+			throw new IndexOutOfBoundsException("No height " + height + " in a stack");
+		return stackNo * maxHeight + height;
+	}
+}
@@ -0,0 +1,177 @@
+package asgn2Manifests;
+
+import java.nio.ByteBuffer;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.CargoException;
+
+/**
+ * A stack store that keeps containers as fixed-width records in a byte
+ * buffer, such as a direct buffer outside the Java heap or a mapped file.
+ * The buffer holds the height of each stack followed by
+ * <code>maxHeight</code> record slots per stack:
+ * <pre>
+ * heights:  int height, for each stack
+ * slots:    long packedCode, int detail, byte type, byte grossWeight,
+ *           short unused, for each slot, stack by stack
+ * </pre>
+ * A container's record is written before the stack's height is raised
+ * to include it, so a height never counts a record that is not yet
+ * complete.
+ * <p>
+ * Once released, a store throws <code>IllegalStateException</code> on
+ * every access, and its buffer can be reclaimed.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class BufferStackStore implements StackStore {
+
+	/** The bytes used by each slot, whether or not it is occupied. */
+	static final int SLOT_SIZE = 8 + 4 + 1 + 1 + 2;
+
+	private static final int CODE = 0;
+	private static final int DETAIL = 8;
+	private static final int TYPE = 12;
+	private static final int WEIGHT = 13;
+
+	private final int numStacks;
+	private final int maxHeight;
+	private final int slots; // where the first slot starts
+	private ByteBuffer buffer; // null once released
+
+	/**
+	 * Constructs a store over the given buffer.  The buffer's contents
+	 * are used as they are, so a zeroed buffer gives an empty store.
+	 *
+	 * @param buffer the buffer, at least <code>bytesNeeded</code> long
+	 * and indexed from zero
+	 * @param numStacks the number of stacks
+	 * @param maxHeight the maximum height of any stack
+	 */
+	BufferStackStore(ByteBuffer buffer, int numStacks, int maxHeight) {
+		if (buffer.capacity() < bytesNeeded(numStacks, maxHeight))
+			throw new IllegalArgumentException("The buffer is too small for the store");
+		this.buffer = buffer;
+		this.numStacks = numStacks;
+		this.maxHeight = maxHeight;
+		this.slots = numStacks * 4;
+	}
+
+	/**
+	 * Returns the size of buffer needed for a store.
+	 *
+	 * @param numStacks the number of stacks
+	 * @param maxHeight the maximum height of any stack
+	 * @return the number of bytes needed
+	 */
+	static long bytesNeeded(int numStacks, int maxHeight) {
+		return numStacks * 4L + (long) numStacks * maxHeight * SLOT_SIZE;
+	}
+
+	/**
+	 * Stops the store using its buffer.
+	 *
+	 * @return the buffer, or null if the store was already released
+	 */
+	ByteBuffer release() {
+		ByteBuffer released = buffer;
+		buffer = null;
+		return released;
+	}
+
+	/**
+	 * Checks that the store has not been released.
+	 *
+	 * @throws IllegalStateException if it has
+	 */
+	void checkOpen() {
+		buffer();
+	}
+
+	@Override
+	public int numStacks() {
+		return numStacks;
+	}
+
+	@Override
+	public int height(int stackNo) {
+		return buffer().getInt(heightAt(stackNo));
+	}
+
+	@Override
+	public Class<?> typeOf(int stackNo) {
+		return ContainerRecords.classOf(buffer().get(slot(stackNo, 0) + TYPE));
+	}
+
+	@Override
+	public long codeAt(int stackNo, int height) {
+		return buffer().getLong(slot(stackNo, height) + CODE);
+	}
+
+	@Override
+	public int weightAt(int stackNo, int height) {
+		return buffer().get(slot(stackNo, height) + WEIGHT);
+	}
+
+	@Override
+	public int detailAt(int stackNo, int height) {
+		return buffer().getInt(slot(stackNo, height) + DETAIL);
+	}
+
+	@Override
+	public FreightContainer containerAt(int stackNo, int height) {
+		ByteBuffer buffer = buffer();
+		int slot = slot(stackNo, height);
+		try {
+			return ContainerRecords.toContainer(buffer.getLong(slot + CODE), buffer.get(slot + TYPE),
+					buffer.get(slot + WEIGHT), buffer.getInt(slot + DETAIL));
+		} catch (CargoException e) {
+			// only possible when racing a change, which the caller will detect
+			throw new IllegalStateException("Damaged container record", e);
+		}
+	}
+
+	@Override
+	public void checkStorable(FreightContainer container) {
+		buffer();
+		ContainerRecords.typeOf(container);
+	}
+
+	@Override
+	public void push(int stackNo, FreightContainer container) {
+		ByteBuffer buffer = buffer();
+		int height = buffer.getInt(heightAt(stackNo));
+		int slot = slot(stackNo, height);
+		buffer.putLong(slot + CODE, container.getCode().asLong());
+		buffer.putInt(slot + DETAIL, ContainerRecords.detailOf(container));
+		buffer.put(slot + TYPE, ContainerRecords.typeOf(container));
+		buffer.put(slot + WEIGHT, container.getGrossWeight().byteValue());
+		buffer.putInt(heightAt(stackNo), height + 1);
+	}
+
+	@Override
+	public void pop(int stackNo) {
+		ByteBuffer buffer = buffer();
+		buffer.putInt(heightAt(stackNo), buffer.getInt(heightAt(stackNo)) - 1);
+	}
+
+	private ByteBuffer buffer() {
+		ByteBuffer current = buffer;
+		if (current == null)
+			throw new IllegalStateException("The manifest's memory has been released");
+		return current;
+	}
+
+	private int heightAt(int stackNo) {
+		if (stackNo < 0 || stackNo >= numStacks)
+			throw new IndexOutOfBoundsException("No stack " + stackNo);
+		return stackNo * 4;
+	}
+
+	private int slot(int stackNo, int height) {
+		if (height < 0 || height >= maxHeight)
+			throw new IndexOutOfBoundsException("No height " + height + " in a stack");
+		return slots + (stackNo * maxHeight + height) * SLOT_SIZE;
+	}
+}
@@ -0,0 +1,117 @@
+package asgn2Manifests;
+
+import java.util.Arrays;
+
+/**
+ * Packed container codes grouped into buckets numbered by small
+ * non-negative keys.  Each bucket is a dense array, so listing a bucket
+ * takes time proportional to its size, and a code can be added or
+ * removed in constant time: removal moves the bucket's last code into
+ * the hole.
+ * <p>
+ * Codes are added and removed by entry number, a small non-negative
+ * number that the caller gives each code, so that several sets of
+ * buckets over the same codes can share one table from codes to entry
+ * numbers rather than each keeping its own.  A code is in at most one
+ * bucket.  The structure is not thread-safe.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class CodeBuckets {
+
+	private static final int INITIAL_BUCKET = 4;
+
+	private long[][] buckets = new long[0][];
+	private int[][] bucketEntries = new int[0][]; // the entry number of each code in each bucket
+	private int[] sizes = new int[0];
+	private int[] keys;  // the bucket of each entry, or -1
+	private int[] slots; // the place of each entry in its bucket
+
+	/**
+	 * Constructs an empty set of buckets.
+	 *
+	 * @param expectedEntries the highest entry number expected, plus one
+	 */
+	CodeBuckets(int expectedEntries) {
+		keys = new int[Math.max(expectedEntries, INITIAL_BUCKET)];
+		Arrays.fill(keys, -1);
+		slots = new int[keys.length];
+	}
+
+	/**
+	 * Adds a code to a bucket.  The entry must not be in any bucket.
+	 *
+	 * @param entry the code's entry number
+	 * @param key the bucket number
+	 * @param code a packed container code
+	 */
+	void add(int entry, int key, long code) {
+		if (key >= buckets.length) {
+			int length = Math.max(key + 1, buckets.length * 2);
+			buckets = Arrays.copyOf(buckets, length);
+			bucketEntries = Arrays.copyOf(bucketEntries, length);
+			sizes = Arrays.copyOf(sizes, length);
+		}
+		if (entry >= keys.length) {
+			int length = Math.max(entry + 1, keys.length * 2);
+			int oldLength = keys.length;
+			keys = Arrays.copyOf(keys, length);
+			Arrays.fill(keys, oldLength, length, -1);
+			slots = Arrays.copyOf(slots, length);
+		}
+		long[] bucket = buckets[key];
+		int size = sizes[key];
+		if (bucket == null) {
+			bucket = buckets[key] = new long[INITIAL_BUCKET];
+			bucketEntries[key] = new int[INITIAL_BUCKET];
+		} else if (size == bucket.length) {
+			bucket = buckets[key] = Arrays.copyOf(bucket, size * 2);
+			bucketEntries[key] = Arrays.copyOf(bucketEntries[key], size * 2);
+		}
+		bucket[size] = code;
+		bucketEntries[key][size] = entry;
+		keys[entry] = key;
+		slots[entry] = size;
+		sizes[key] = size + 1;
+	}
+
+	/**
+	 * Removes an entry's code from whichever bucket it is in, if any.
+	 *
+	 * @param entry the code's entry number
+	 */
+	void remove(int entry) {
+		if (entry >= keys.length || keys[entry] < 0)
+			return;
+		int key = keys[entry];
+		int slot = slots[entry];
+		int last = --sizes[key];
+		int moved = bucketEntries[key][last];
+		buckets[key][slot] = buckets[key][last];
+		bucketEntries[key][slot] = moved;
+		slots[moved] = slot;
+		keys[entry] = -1;
+	}
+
+	/**
+	 * Returns the number of codes in a bucket.
+	 *
+	 * @param key the bucket number
+	 * @return the bucket's size, which is zero if nothing was ever added
+	 */
+	int size(int key) {
+		return key >= 0 && key < sizes.length ? sizes[key] : 0;
+	}
+
+	/**
+	 * Returns a code in a bucket.
+	 *
+	 * @param key the bucket number
+	 * @param i the place in the bucket, less than <code>size(key)</code>
+	 * @return the code
+	 */
+	long codeAt(int key, int i) {
+		return buckets[key][i];
+	}
+}
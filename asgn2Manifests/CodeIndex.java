@@ -0,0 +1,182 @@
+package asgn2Manifests;
+
+import java.util.Arrays;
+
+/**
+ * A hash table from packed container codes to the position (stack number
+ * and height) of each container on board.  Keys and values are held in
+ * parallel primitive arrays using open addressing with linear probing,
+ * so neither lookups nor updates create any objects.
+ * <p>
+ * Packed container codes are never negative, which lets us use -1 to
+ * mark an empty slot.
+ * <p>
+ * The index is not thread-safe.  <code>CargoManifest</code> may read
+ * it optimistically while another thread changes it, so reads must
+ * terminate and not fail badly on a half-changed table; the manifest
+ * discards any such result.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class CodeIndex {
+
+	private static final long EMPTY = -1L;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] stacks;
+	private int[] heights;
+	private int size;
+
+	/**
+	 * Constructs an empty index sized for the given number of containers.
+	 *
+	 * @param expectedSize the number of containers expected on board
+	 */
+	CodeIndex(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2 && capacity < (1 << 30))
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * Returns the number of containers in the index.
+	 *
+	 * @return the number of entries
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true iff the given code is in the index.
+	 *
+	 * @param code a packed container code
+	 * @return true if the container is on board
+	 */
+	boolean contains(long code) {
+		return slotOf(code) >= 0;
+	}
+
+	/**
+	 * Returns the stack holding the given container.
+	 *
+	 * @param code a packed container code
+	 * @return the stack number, or -1 if the container is not on board
+	 */
+	int stackOf(long code) {
+		int slot = slotOf(code);
+		return slot < 0 ? -1 : stacks[slot];
+	}
+
+	/**
+	 * Returns the height of the given container in its stack.
+	 *
+	 * @param code a packed container code
+	 * @return the height, or -1 if the container is not on board
+	 */
+	int heightOf(long code) {
+		int slot = slotOf(code);
+		return slot < 0 ? -1 : heights[slot];
+	}
+
+	/**
+	 * Records the position of a container, replacing any previous entry
+	 * for the same code.
+	 *
+	 * @param code a packed container code
+	 * @param stack the stack number
+	 * @param height the height in the stack
+	 */
+	void put(long code, int stack, int height) {
+		if ((size + 1) * 2 > keys.length)
+			rehash(keys.length * 2);
+		int mask = keys.length - 1;
+		int slot = hash(code) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != code)
+			slot = (slot + 1) & mask;
+		if (keys[slot] == EMPTY)
+			size++;
+		keys[slot] = code;
+		stacks[slot] = stack;
+		heights[slot] = height;
+	}
+
+	/**
+	 * Removes a container from the index.  Later entries in the same
+	 * probe run are shifted back so that no tombstones are left behind.
+	 *
+	 * @param code a packed container code
+	 * @return true if the container was in the index
+	 */
+	boolean remove(long code) {
+		int slot = slotOf(code);
+		if (slot < 0)
+			return false;
+		int mask = keys.length - 1;
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (keys[next] != EMPTY) {
+			int home = hash(keys[next]) & mask;
+			// move the entry back if the hole lies between its home and where it is now
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				stacks[hole] = stacks[next];
+				heights[hole] = heights[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = EMPTY;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Removes every entry from the index.
+	 */
+	void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	private int slotOf(long code) {
+		if (code < 0)
+			return -1;
+		int mask = keys.length - 1;
+		int slot = hash(code) & mask;
+		// the table is never full, but an optimistic reader racing a
+		// writer could otherwise chase entries being moved around it
+		for (int probes = 0; probes <= mask && keys[slot] != EMPTY; probes++) {
+			if (keys[slot] == code)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldStacks = stacks;
+		int[] oldHeights = heights;
+		allocate(capacity);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++)
+			if (oldKeys[i] != EMPTY)
+				put(oldKeys[i], oldStacks[i], oldHeights[i]);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		stacks = new int[capacity];
+		heights = new int[capacity];
+	}
+
+	private static int hash(long code) {
+		long h = code * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+}
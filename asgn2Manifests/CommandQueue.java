@@ -0,0 +1,89 @@
+package asgn2Manifests;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for many producer threads and a single
+ * consumer thread.  Producers claim a slot by advancing the tail with a
+ * compare-and-set and then publish their element into it; the consumer
+ * takes elements in claim order, waiting for a claimed slot to be
+ * published before moving past it.
+ *
+ * @param <E> the type of the queued elements
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class CommandQueue<E> {
+
+	private final AtomicReferenceArray<E> slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong(); // next slot to be claimed by a producer
+	private volatile long head; // next slot to be taken by the consumer
+
+	/**
+	 * Constructs an empty queue.
+	 *
+	 * @param capacity the least number of elements the queue must hold;
+	 * it is rounded up to a power of two
+	 */
+	CommandQueue(int capacity) {
+		int size = 1;
+		while (size < capacity)
+			size <<= 1;
+		slots = new AtomicReferenceArray<E>(size);
+		mask = size - 1;
+	}
+
+	/**
+	 * Adds an element unless the queue is full.  May be called from any thread.
+	 *
+	 * @param element the element to add, which must not be null
+	 * @return true if the element was added, false if the queue is full
+	 */
+	boolean offer(E element) {
+		long claimed;
+		do {
+			claimed = tail.get();
+			if (claimed - head >= slots.length())
+				return false;
+		} while (!tail.compareAndSet(claimed, claimed + 1));
+		slots.lazySet((int) claimed & mask, element);
+		return true;
+	}
+
+	/**
+	 * Removes the element at the head of the queue.  Must only be called
+	 * from the consumer thread.
+	 *
+	 * @return the element, or null if no element is ready
+	 */
+	E poll() {
+		long current = head;
+		int index = (int) current & mask;
+		E element = slots.get(index);
+		if (element == null)
+			return null; // empty, or the producer has not published yet
+		slots.lazySet(index, null);
+		head = current + 1;
+		return element;
+	}
+
+	/**
+	 * Returns true iff no slots have been claimed beyond the head.
+	 *
+	 * @return true if the queue is empty
+	 */
+	boolean isEmpty() {
+		return tail.get() == head;
+	}
+
+	/**
+	 * Returns the number of elements the queue can hold.
+	 *
+	 * @return the capacity
+	 */
+	int capacity() {
+		return slots.length();
+	}
+}
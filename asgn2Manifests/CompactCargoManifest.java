@@ -0,0 +1,58 @@
+package asgn2Manifests;
+
+import asgn2Exceptions.ManifestException;
+
+/**
+ * A cargo manifest for very large ships, which keeps its containers as
+ * primitive fields in parallel arrays rather than as objects.  It applies
+ * the same rules, and has the same operations, as
+ * <code>CargoManifest</code>.
+ * <p>
+ * Every slot on deck (<code>numStacks</code> &times; <code>maxHeight</code>
+ * of them) takes 12 bytes whether or not it is occupied: 8 for the packed
+ * code, 1 each for the weight and type, and 2 for the dangerous goods
+ * category or temperature.  The code index takes a further 32 to 64 bytes
+ * per container on board.  A ship that is mostly full therefore needs
+ * about 50 to 80 bytes per container, in a handful of large arrays, against
+ * well over 100 bytes scattered across several objects when the
+ * containers themselves are kept.
+ * <p>
+ * Container objects are made afresh whenever they are asked for, so
+ * <code>toArray</code> returns new containers with the same codes,
+ * weights and details as those loaded, and changing one (for instance
+ * its temperature) does not change the manifest.  Only general goods, refrigerated and dangerous goods
+ * containers can be held, and a temperature must fit in a
+ * <code>short</code>; loading any other container throws
+ * <code>IllegalArgumentException</code> and leaves the manifest unchanged.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class CompactCargoManifest extends CargoManifest {
+
+	/**
+	 * Constructs a new, empty compact cargo manifest.  The parameters
+	 * are as for <code>CargoManifest</code>.
+	 *
+	 * @param numStacks the number of stacks that can be accommodated on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * (in tonnes)
+	 * @throws ManifestException if negative numbers are given for any of the
+	 * parameters, or there are too many slots on deck to be held
+	 */
+	public CompactCargoManifest(Integer numStacks, Integer maxHeight, Integer maxWeight)
+	throws ManifestException {
+		super(createStore(numStacks, maxHeight, maxWeight), maxHeight, maxWeight);
+	}
+
+	private static StackStore createStore(Integer numStacks, Integer maxHeight, Integer maxWeight)
+	throws ManifestException {
+		checkParameters(numStacks, maxHeight, maxWeight);
+		try {
+			return new ArrayStackStore(numStacks, maxHeight);
+		} catch (IllegalArgumentException e) {
+			throw new ManifestException(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package asgn2Manifests;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.ManifestException;
+
+/**
+ * A cargo manifest that may be shared by several threads, such as the
+ * controllers of different cranes and the gate clerks, all loading and
+ * unloading at once.  It applies the same rules as
+ * <code>CargoManifest</code>, but instead of serialising every operation
+ * it keeps the part that must be done one at a time as short as it can:
+ * <ul>
+ * <li>
+ * The weight limit is enforced by reserving a container's weight with
+ * a compare-and-set on the running total before it is placed.
+ * </li>
+ * <li>
+ * A container's code is reserved in a concurrent map before it is placed,
+ * so two threads cannot load the same container.
+ * </li>
+ * <li>
+ * Choosing a stack and changing it are done together while holding the
+ * lock of a <code>StackPlacement</code>, the same rules for finding space
+ * that <code>CargoManifest</code> uses.  This takes a few word scans
+ * rather than a look at every stack, so the lock is held only briefly,
+ * and a rejection for weight or a duplicate code never takes it.
+ * </li>
+ * <li>
+ * Each stack also has its own lock, held while a container is put on or
+ * taken off it, so <code>toArray</code> locks only the stack it copies.
+ * <code>whichStack</code> and <code>howHigh</code> read the concurrent
+ * map and take no locks at all.
+ * </li>
+ * </ul>
+ * <code>toString</code> shows each stack as it was when it was read,
+ * not the whole ship at a single moment.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class ConcurrentCargoManifest implements ShipManifest {
+
+	/** Marks a code reserved by a load that has not yet placed its container. */
+	private static final Position PENDING = new Position(-1, -1);
+
+	private final Stack[] stacks;
+	private final int maxWeight;
+	private final AtomicInteger currentWeight; // the current total weight of all containers
+	private final ConcurrentHashMap<ContainerCode, Position> positions;
+	private final StackPlacement space; // the stacks a new container may go on; guarded by itself
+
+	/**
+	 * Where a container is on board.  A container's position never changes
+	 * while it is on board, because only the top container of a stack
+	 * can be unloaded.
+	 */
+	private static class Position {
+		private final int stackNo;
+		private final int height;
+
+		private Position(int stackNo, int height) {
+			this.stackNo = stackNo;
+			this.height = height;
+		}
+	}
+
+	/**
+	 * A stack of containers, guarded by its own monitor.  It is only
+	 * changed while the placement's lock is also held.
+	 */
+	private static class Stack {
+		private final FreightContainer[] containers;
+		private int size;
+
+		private Stack(int maxHeight) {
+			containers = new FreightContainer[maxHeight];
+		}
+	}
+
+	/**
+	 * Constructs a new, empty, thread-safe cargo manifest.  The parameters
+	 * are as for <code>CargoManifest</code>.
+	 *
+	 * @param numStacks the number of stacks that can be accommodated on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * (in tonnes)
+	 * @throws ManifestException if negative numbers are given for any of the
+	 * parameters
+	 */
+	public ConcurrentCargoManifest(Integer numStacks, Integer maxHeight, Integer maxWeight)
+	throws ManifestException {
+		if (numStacks <= 0 || maxHeight <= 0 || maxWeight <= 0)
+			throw new ManifestException("Numbers must not be negative");
+
+		stacks = new Stack[numStacks];
+		for (int i = 0; i < numStacks; i++)
+			stacks[i] = new Stack(maxHeight);
+		this.maxWeight = maxWeight;
+		this.currentWeight = new AtomicInteger();
+		this.positions = new ConcurrentHashMap<ContainerCode, Position>();
+		this.space = new StackPlacement(numStacks, maxHeight);
+	}
+
+	/**
+	 * Loads a freight container onto the ship, provided that it can be
+	 * accommodated within the five rules set by the captain.
+	 *
+	 * @param newContainer the new freight container to be loaded
+	 * @throws ManifestException if adding this container would exceed
+	 * the ship's weight limit; if a container with the same code is
+	 * already on board; or if no suitable space can be found for this
+	 * container
+	 */
+	public void loadContainer(FreightContainer newContainer) throws ManifestException {
+		ManifestOutcome outcome = tryLoadContainer(newContainer);
+		if (outcome != ManifestOutcome.LOADED)
+			throw new ManifestException(outcome.getMessage());
+	}
+
+	/**
+	 * Loads a freight container onto the ship if it can be accommodated,
+	 * reporting a rejection through the returned outcome rather than an
+	 * exception.
+	 *
+	 * @param newContainer the new freight container to be loaded
+	 * @return <code>LOADED</code> if the container was loaded; otherwise
+	 * <code>OVERWEIGHT</code>, <code>DUPLICATE</code> or <code>NO_SPACE</code>
+	 */
+	public ManifestOutcome tryLoadContainer(FreightContainer newContainer) {
+		int weight = newContainer.getGrossWeight();
+		ContainerCode code = newContainer.getCode();
+
+		// reserve weight
+		int current;
+		do {
+			current = currentWeight.get();
+			if (current + weight > maxWeight)
+				return ManifestOutcome.OVERWEIGHT;
+		} while (!currentWeight.compareAndSet(current, current + weight));
+
+		// reserve code
+		if (positions.putIfAbsent(code, PENDING) != null) {
+			currentWeight.addAndGet(-weight);
+			return ManifestOutcome.DUPLICATE;
+		}
+
+		// load container
+		Class<?> type = newContainer.getClass();
+		synchronized (space) {
+			int stackNo = space.findStack(type);
+			if (stackNo >= 0) {
+				Stack stack = stacks[stackNo];
+				int height;
+				synchronized (stack) {
+					height = stack.size;
+					stack.containers[height] = newContainer;
+					positions.put(code, new Position(stackNo, height));
+					stack.size = height + 1;
+				}
+				space.update(stackNo, type, height + 1);
+				return ManifestOutcome.LOADED;
+			}
+		}
+
+		// no suitable space can be found, so release the reservations
+		positions.remove(code, PENDING);
+		currentWeight.addAndGet(-weight);
+		return ManifestOutcome.NO_SPACE;
+	}
+
+	/**
+	 * Unloads a particular container from the ship, provided that
+	 * it is accessible (i.e., on top of a stack).
+	 *
+	 * @param containerId the code of the container to be unloaded
+	 * @throws ManifestException if the container is not accessible because
+	 * it's not on the top of a stack (including the case where it's not on board
+	 * the ship at all)
+	 */
+	public void unloadContainer(ContainerCode containerId) throws ManifestException {
+		ManifestOutcome outcome = tryUnloadContainer(containerId);
+		if (outcome != ManifestOutcome.UNLOADED)
+			throw new ManifestException(outcome.getMessage());
+	}
+
+	/**
+	 * Unloads a particular container from the ship if it is accessible,
+	 * reporting a rejection through the returned outcome rather than an
+	 * exception.
+	 *
+	 * @param containerId the code of the container to be unloaded
+	 * @return <code>UNLOADED</code> if the container was unloaded; otherwise
+	 * <code>NOT_FOUND</code> or <code>NOT_ACCESSIBLE</code>
+	 */
+	public ManifestOutcome tryUnloadContainer(ContainerCode containerId) {
+		Position position = containerId == null ? null : positions.get(containerId);
+		if (position == null || position == PENDING)
+			return ManifestOutcome.NOT_FOUND;
+
+		Stack stack = stacks[position.stackNo];
+		FreightContainer removedContainer;
+		synchronized (space) {
+			synchronized (stack) {
+				int size = stack.size;
+				// check the container is still there, then that it is on top
+				if (position.height >= size
+						|| !stack.containers[position.height].getCode().equals(containerId))
+					return ManifestOutcome.NOT_FOUND;
+				if (position.height < size-1)
+					return ManifestOutcome.NOT_ACCESSIBLE;
+
+				// unload it
+				removedContainer = stack.containers[position.height];
+				stack.containers[position.height] = null;
+				positions.remove(containerId);
+				stack.size = position.height;
+			}
+			space.update(position.stackNo, removedContainer.getClass(), position.height);
+		}
+		currentWeight.addAndGet(-removedContainer.getGrossWeight());
+		return ManifestOutcome.UNLOADED;
+	}
+
+	/**
+	 * Returns which stack holds a particular container, if any.  This
+	 * takes no locks.
+	 *
+	 * @param queryContainer the container code for the container of interest
+	 * @return the number of the stack with the container in it, or <code>null</code>
+	 * if the container is not on board
+	 */
+	public Integer whichStack(ContainerCode queryContainer) {
+		Position position = queryContainer == null ? null : positions.get(queryContainer);
+		if (position == null || position == PENDING)
+			return null; // not found
+		return position.stackNo;
+	}
+
+	/**
+	 * Returns how high in its stack a particular container is, counting
+	 * from zero at the bottom.  This takes no locks.
+	 *
+	 * @param queryContainer the container code for the container of interest
+	 * @return the container's height in the stack, or <code>null</code>
+	 * if the container is not on board
+	 */
+	public Integer howHigh(ContainerCode queryContainer) {
+		Position position = queryContainer == null ? null : positions.get(queryContainer);
+		if (position == null || position == PENDING)
+			return null; // not found
+		return position.height;
+	}
+
+	/**
+	 * Returns the contents of a particular stack as an array,
+	 * starting with the bottommost container at position zero in the array.
+	 * Only that stack is locked while it is copied.
+	 *
+	 * @param stackNo the number of the stack of interest
+	 * @return the stack's freight containers as an array
+	 * @throws ManifestException if there is no such stack on the ship
+	 */
+	public FreightContainer[] toArray(Integer stackNo) throws ManifestException {
+		if (stackNo == null || stackNo < 0 || stackNo >= stacks.length)
+			throw new ManifestException("There is no such stack on the ship");
+
+		Stack stack = stacks[stackNo];
+		synchronized (stack) {
+			FreightContainer[] contents = new FreightContainer[stack.size];
+			System.arraycopy(stack.containers, 0, contents, 0, contents.length);
+			return contents;
+		}
+	}
+
+	/**
+	 * Returns the number of stacks
+	 * @return the number of stacks on the ship
+	 */
+	public int getNumStacks() {
+		return stacks.length;
+	}
+
+	/**
+	 * Returns the total weight of the containers on board, including any
+	 * whose loading is in progress.
+	 *
+	 * @return the current weight (in tonnes)
+	 */
+	public int getCurrentWeight() {
+		return currentWeight.get();
+	}
+
+	/* ***** toString methods, in the same format as CargoManifest ***** */
+
+	public String toString(ContainerCode toFind) {
+		StringBuilder toReturn = new StringBuilder();
+		for (int i = 0; i < stacks.length; ++i) {
+			try {
+				ManifestRenderer.appendStack(toReturn, Arrays.asList(toArray(i)), toFind);
+			} catch (ManifestException e) {
+				throw new IllegalStateException(e); // cannot happen, i is in range
+			} catch (IOException e) {
+				throw new IllegalStateException(e); // cannot happen, StringBuilder does not throw
+			}
+		}
+		return toReturn.toString();
+	}
+
+	@Override
+	public String toString() {
+		return toString(null);
+	}
+}
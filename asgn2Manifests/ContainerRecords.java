@@ -0,0 +1,143 @@
+package asgn2Manifests;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Exceptions.InvalidCodeException;
+import asgn2Exceptions.InvalidContainerException;
+
+/**
+ * Converts freight containers to and from the primitive fields used
+ * when a manifest is written to a file or held outside ordinary objects:
+ * a packed code, a type number, a gross weight and a detail, which is
+ * the dangerous goods category or the refrigerated temperature.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+final class ContainerRecords {
+
+	static final byte GENERAL_GOODS = 1;
+	static final byte REFRIGERATED = 2;
+	static final byte DANGEROUS_GOODS = 3;
+
+	/** The detail of a refrigerated container whose temperature is not set. */
+	static final int NO_TEMPERATURE = Integer.MIN_VALUE;
+
+	private ContainerRecords() {
+	}
+
+	/**
+	 * Returns the type number of a container.
+	 *
+	 * @param container a freight container
+	 * @return its type number
+	 * @throws IllegalArgumentException if the container is not one of the
+	 * three kinds that can be recorded
+	 */
+	static byte typeOf(FreightContainer container) {
+		Class<?> type = container.getClass();
+		if (type == GeneralGoodsContainer.class)
+			return GENERAL_GOODS;
+		if (type == RefrigeratedContainer.class)
+			return REFRIGERATED;
+		if (type == DangerousGoodsContainer.class)
+			return DANGEROUS_GOODS;
+		throw new IllegalArgumentException("Containers of type " + type.getName() + " cannot be recorded");
+	}
+
+	/**
+	 * Returns true iff a container is one of the three kinds that can
+	 * be recorded.
+	 *
+	 * @param container a freight container
+	 * @return true if <code>typeOf</code> accepts the container
+	 */
+	static boolean isRecordable(FreightContainer container) {
+		Class<?> type = container.getClass();
+		return type == GeneralGoodsContainer.class || type == RefrigeratedContainer.class
+				|| type == DangerousGoodsContainer.class;
+	}
+
+	/**
+	 * Returns the class of containers with the given type number.
+	 *
+	 * @param type a type number
+	 * @return the container class
+	 * @throws IllegalArgumentException if the type number is unknown
+	 */
+	static Class<? extends FreightContainer> classOf(byte type) {
+		switch (type) {
+		case GENERAL_GOODS:
+			return GeneralGoodsContainer.class;
+		case REFRIGERATED:
+			return RefrigeratedContainer.class;
+		case DANGEROUS_GOODS:
+			return DangerousGoodsContainer.class;
+		default:
+			throw new IllegalArgumentException("Unknown container type " + type);
+		}
+	}
+
+	/**
+	 * Returns a container's detail: its dangerous goods category, its
+	 * temperature (or <code>NO_TEMPERATURE</code>), or zero for general goods.
+	 *
+	 * @param container a freight container
+	 * @return the detail
+	 */
+	static int detailOf(FreightContainer container) {
+		if (container instanceof DangerousGoodsContainer)
+			return ((DangerousGoodsContainer) container).getCategory();
+		if (container instanceof RefrigeratedContainer) {
+			Integer temperature = ((RefrigeratedContainer) container).getTemperature();
+			return temperature == null ? NO_TEMPERATURE : temperature;
+		}
+		return 0;
+	}
+
+	/**
+	 * Makes a container from its recorded fields.
+	 *
+	 * @param code the packed container code
+	 * @param type the type number
+	 * @param grossWeight the gross weight (in tonnes)
+	 * @param detail the category or temperature, as for <code>detailOf</code>
+	 * @return the container
+	 * @throws InvalidCodeException if the code is not a valid packed code
+	 * @throws InvalidContainerException if the weight or category is invalid
+	 * @throws IllegalArgumentException if the type number is unknown
+	 */
+	static FreightContainer toContainer(long code, byte type, int grossWeight, int detail)
+	throws InvalidCodeException, InvalidContainerException {
+		ContainerCode containerCode = ContainerCode.valueOf(code);
+		switch (type) {
+		case GENERAL_GOODS:
+			return new GeneralGoodsContainer(containerCode, grossWeight);
+		case REFRIGERATED:
+			return new RefrigeratedContainer(containerCode, grossWeight,
+					detail == NO_TEMPERATURE ? null : Integer.valueOf(detail));
+		case DANGEROUS_GOODS:
+			return new DangerousGoodsContainer(containerCode, grossWeight, detail);
+		default:
+			throw new IllegalArgumentException("Unknown container type " + type);
+		}
+	}
+
+	/**
+	 * Returns a packed code as a string, or as a number if it is not a
+	 * valid code, for messages and recorded events.
+	 *
+	 * @param packedCode a packed container code
+	 * @return the code, or the number if it cannot be unpacked
+	 */
+	static String codeString(long packedCode) {
+		try {
+			return ContainerCode.unpack(packedCode);
+		} catch (InvalidCodeException e) {
+			return Long.toString(packedCode);
+		}
+	}
+}
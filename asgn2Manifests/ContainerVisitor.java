@@ -0,0 +1,25 @@
+package asgn2Manifests;
+
+import asgn2Containers.FreightContainer;
+
+/**
+ * Something to be done with each container on board, given where the
+ * container is.  See <code>CargoManifest.forEachContainer</code>.
+ * <p>
+ * A visitor runs while the manifest is read-locked, so it must not load
+ * or unload containers, and should be quick.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public interface ContainerVisitor {
+
+	/**
+	 * Visits one container.
+	 *
+	 * @param stackNo the number of the stack holding the container
+	 * @param height the container's height in the stack, counting from zero
+	 * @param container the container
+	 */
+	void visit(int stackNo, int height, FreightContainer container);
+}
@@ -0,0 +1,237 @@
+package asgn2Manifests;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.ManifestException;
+
+/**
+ * A cargo manifest that survives the process dying mid-voyage.  Every
+ * successful load and unload is recorded in a <code>ManifestJournal</code>
+ * before the caller is told it succeeded, and <code>recover</code>
+ * rebuilds the manifest from the journal on startup.
+ * <p>
+ * Changes are applied and journalled in the same order, so replaying
+ * the journal reproduces the same placements.  The wait for the journal to
+ * reach the disk happens after the manifest is unlocked, so concurrent
+ * operations share each fsync (see <code>ManifestJournal</code>).
+ * Other threads may see a change before it is durable, but its caller
+ * is not told about it until it is.
+ * <p>
+ * Because each change is applied before its record is made durable,
+ * a journal failure leaves the manifest holding changes that may never
+ * reach the disk.  The operation that discovers the failure throws
+ * <code>UncheckedIOException</code>, and from then on every load and
+ * unload is rejected the same way before it changes anything, so the
+ * manifest never gets further ahead of its journal.  Recovering from
+ * the journal gives the last durable state.  Only general goods,
+ * refrigerated and dangerous goods containers can be journalled, and
+ * any other container is rejected before the manifest is changed.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class JournaledCargoManifest extends CargoManifest implements Closeable {
+
+	private ManifestJournal journal; // null while the journal is being replayed
+	private final Object order = new Object(); // keeps journal order the same as manifest order
+	private volatile IOException failure; // the journal has failed, so no more changes are accepted
+	private volatile boolean closed;
+
+	private JournaledCargoManifest(int numStacks, int maxHeight, int maxWeight)
+	throws ManifestException {
+		super(numStacks, maxHeight, maxWeight);
+	}
+
+	/**
+	 * Constructs a new, empty manifest with a new journal.
+	 *
+	 * @param file the journal file to create, which must not exist
+	 * @param numStacks the number of stacks that can be accommodated on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * (in tonnes)
+	 * @return the manifest
+	 * @throws ManifestException if negative numbers are given for any of the
+	 * parameters
+	 * @throws IOException if the journal cannot be created
+	 */
+	public static JournaledCargoManifest create(Path file, Integer numStacks, Integer maxHeight,
+			Integer maxWeight) throws ManifestException, IOException {
+		JournaledCargoManifest manifest = new JournaledCargoManifest(numStacks, maxHeight, maxWeight);
+		manifest.journal = ManifestJournal.create(file, numStacks, maxHeight, maxWeight);
+		return manifest;
+	}
+
+	/**
+	 * Rebuilds a manifest by replaying its journal, which then continues
+	 * to record further changes.
+	 *
+	 * @param file the journal file
+	 * @return the manifest, as it was after the last durable change
+	 * @throws ManifestException if the journal records invalid parameters
+	 * @throws IOException if the journal cannot be read or does not replay
+	 */
+	public static JournaledCargoManifest recover(Path file) throws ManifestException, IOException {
+		ManifestJournal journal = ManifestJournal.open(file);
+		try {
+			JournaledCargoManifest manifest = new JournaledCargoManifest(journal.getNumStacks(),
+					journal.getMaxHeight(), journal.getMaxWeight());
+			journal.replay(manifest);
+			manifest.journal = journal;
+			return manifest;
+		} catch (ManifestException e) {
+			journal.close();
+			throw e;
+		} catch (IOException e) {
+			journal.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Loads a container as for <code>CargoManifest</code>, returning once
+	 * the load is durable.
+	 *
+	 * @throws UncheckedIOException if the journal cannot be written, or
+	 * has failed before
+	 * @throws IllegalStateException if the manifest has been closed
+	 * @throws IllegalArgumentException if the journal cannot record
+	 * containers of this class, in which case nothing is loaded
+	 */
+	@Override
+	public ManifestOutcome tryLoadContainer(FreightContainer newContainer) {
+		if (journal == null)
+			return super.tryLoadContainer(newContainer);
+		checkRecordable(newContainer);
+		ManifestOutcome outcome;
+		long sequence = 0;
+		synchronized (order) {
+			checkWritable();
+			outcome = super.tryLoadContainer(newContainer);
+			if (outcome == ManifestOutcome.LOADED)
+				sequence = journal.appendLoad(newContainer);
+		}
+		awaitDurable(sequence);
+		return outcome;
+	}
+
+	/**
+	 * Loads a batch of containers as for <code>CargoManifest</code>,
+	 * returning once the whole batch is durable.
+	 *
+	 * @throws UncheckedIOException if the journal cannot be written, or
+	 * has failed before
+	 * @throws IllegalStateException if the manifest has been closed
+	 * @throws IllegalArgumentException if the journal cannot record one
+	 * of the containers, in which case nothing is loaded
+	 */
+	@Override
+	public List<Placement> loadContainers(List<? extends FreightContainer> newContainers)
+	throws ManifestException {
+		if (journal == null)
+			return super.loadContainers(newContainers);
+		for (FreightContainer newContainer : newContainers)
+			checkRecordable(newContainer);
+		List<Placement> placements;
+		long sequence = 0;
+		synchronized (order) {
+			checkWritable();
+			placements = super.loadContainers(newContainers);
+			for (Placement placement : placements)
+				sequence = journal.appendLoad(placement.getContainer());
+		}
+		awaitDurable(sequence);
+		return placements;
+	}
+
+	/**
+	 * Unloads a container as for <code>CargoManifest</code>, returning once
+	 * the unload is durable.
+	 *
+	 * @throws UncheckedIOException if the journal cannot be written, or
+	 * has failed before
+	 * @throws IllegalStateException if the manifest has been closed
+	 */
+	@Override
+	public ManifestOutcome tryUnloadContainer(long packedCode) {
+		if (journal == null)
+			return super.tryUnloadContainer(packedCode);
+		ManifestOutcome outcome;
+		long sequence = 0;
+		synchronized (order) {
+			checkWritable();
+			outcome = super.tryUnloadContainer(packedCode);
+			if (outcome == ManifestOutcome.UNLOADED)
+				sequence = journal.appendUnload(packedCode);
+		}
+		awaitDurable(sequence);
+		return outcome;
+	}
+
+	/**
+	 * Returns how many times the journal has been forced to disk.  When
+	 * several threads change the manifest at once, they share forces, so
+	 * this grows more slowly than the number of changes.
+	 *
+	 * @return the number of forces since the journal was opened
+	 */
+	public long getForceCount() {
+		return journal.getForceCount();
+	}
+
+	private void checkWritable() {
+		if (closed)
+			throw new IllegalStateException("The manifest's journal has been closed");
+		IOException cause = failure;
+		if (cause != null)
+			throw new UncheckedIOException("The journal has failed, so no more changes are accepted", cause);
+	}
+
+	/* Checked before the manifest is changed, so a container the journal
+	 * cannot record is never on board without being in the log. */
+	private static void checkRecordable(FreightContainer container) {
+		if (container != null && !ContainerRecords.isRecordable(container))
+			throw new IllegalArgumentException("Containers of type " + container.getClass().getName()
+					+ " cannot be journalled");
+	}
+
+	private void awaitDurable(long sequence) {
+		if (sequence == 0)
+			return; // nothing was changed
+		try {
+			journal.awaitDurable(sequence);
+		} catch (InterruptedIOException e) {
+			throw new UncheckedIOException(e); // the record is still buffered and may yet be written
+		} catch (IOException e) {
+			fail(e);
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void fail(IOException cause) {
+		synchronized (order) {
+			if (failure == null)
+				failure = cause;
+		}
+	}
+
+	/**
+	 * Makes any outstanding changes durable and closes the journal.  No
+	 * more changes are accepted afterwards.
+	 *
+	 * @throws IOException if the journal cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (order) {
+			closed = true;
+		}
+		journal.close();
+	}
+}
@@ -0,0 +1,144 @@
+package asgn2Manifests;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of operation times in nanoseconds, with a fixed set of
+ * buckets laid out as in an HDR histogram: exact below 32 ns, and above
+ * that each power of two is split into 16 equal buckets, so any value
+ * is recorded to within about 6%.  Times of up to about 18 minutes are
+ * kept apart; longer ones share the last bucket.
+ * <p>
+ * Recording a time allocates nothing and takes no lock, and any number
+ * of threads may record at once.  Reads made while times are being
+ * recorded may miss the most recent ones.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** Values of 2^40 ns or more go in the last bucket. */
+	private static final int MAX_MAGNITUDE = 40;
+	private static final int NUM_BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records one operation time.
+	 *
+	 * @param nanos the time taken, in nanoseconds; a negative time, as
+	 * from a clock that has gone backwards, is recorded as zero
+	 */
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		counts.incrementAndGet(bucketOf(nanos));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		long current;
+		while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos))
+			;
+	}
+
+	/**
+	 * Returns the bucket a time is recorded in.
+	 */
+	static int bucketOf(long nanos) {
+		if (nanos < 2 * SUB_BUCKETS)
+			return (int) nanos;
+		int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+		if (magnitude >= MAX_MAGNITUDE)
+			return NUM_BUCKETS - 1;
+		int shift = magnitude - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * Returns the greatest time recorded in a bucket.
+	 */
+	static long highestIn(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS)
+			return bucket;
+		if (bucket == NUM_BUCKETS - 1)
+			return Long.MAX_VALUE;
+		int shift = bucket / SUB_BUCKETS - 1;
+		return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift) - 1;
+	}
+
+	/**
+	 * Returns the number of times recorded.
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Returns the longest time recorded.
+	 * @return the maximum, in nanoseconds, or zero if nothing is recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the mean of the times recorded.
+	 * @return the mean, in nanoseconds, or zero if nothing is recorded
+	 */
+	public double getMean() {
+		long n = count.get();
+		return n == 0 ? 0 : (double) total.get() / n;
+	}
+
+	/**
+	 * Returns the time that the given percentage of recorded times do not
+	 * exceed, to the accuracy of the buckets.
+	 *
+	 * @param percentile a percentage, from 0 to 100
+	 * @return the time, in nanoseconds, or zero if nothing is recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] snapshot = new long[NUM_BUCKETS];
+		long n = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++)
+			n += snapshot[i] = counts.get(i);
+		if (n == 0)
+			return 0;
+		long wanted = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= wanted)
+				return Math.min(highestIn(i), max.get());
+		}
+		return max.get();
+	}
+
+	/**
+	 * Discards every time recorded so far.  Times recorded during the
+	 * reset may be partly kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < NUM_BUCKETS; i++)
+			counts.set(i, 0);
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Returns a summary of the times recorded.
+	 * @return the count, mean, maximum and main percentiles
+	 */
+	public LatencySummary summarize() {
+		return new LatencySummary(getCount(), getMean(), getValueAtPercentile(50),
+				getValueAtPercentile(90), getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+	}
+}
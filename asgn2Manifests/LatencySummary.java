@@ -0,0 +1,71 @@
+package asgn2Manifests;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A summary of a <code>LatencyHistogram</code> at one moment, in the
+ * form reported through JMX.  All times are in nanoseconds.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class LatencySummary {
+
+	private final long count;
+	private final double mean;
+	private final long median;
+	private final long p90;
+	private final long p99;
+	private final long p999;
+	private final long max;
+
+	/**
+	 * Constructs a summary.
+	 *
+	 * @param count the number of times recorded
+	 * @param mean the mean time
+	 * @param median the 50th percentile
+	 * @param p90 the 90th percentile
+	 * @param p99 the 99th percentile
+	 * @param p999 the 99.9th percentile
+	 * @param max the longest time
+	 */
+	@ConstructorProperties({"count", "mean", "median", "p90", "p99", "p999", "max"})
+	public LatencySummary(long count, double mean, long median, long p90, long p99, long p999, long max) {
+		this.count = count;
+		this.mean = mean;
+		this.median = median;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	public long getMedian() {
+		return median;
+	}
+
+	public long getP90() {
+		return p90;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public long getP999() {
+		return p999;
+	}
+
+	public long getMax() {
+		return max;
+	}
+}
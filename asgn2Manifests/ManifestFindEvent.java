@@ -0,0 +1,70 @@
+package asgn2Manifests;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for a search for a container, by
+ * <code>whichStack</code>, <code>howHigh</code>, <code>stackOf</code> or
+ * <code>heightOf</code>.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+@Name("asgn2.ManifestFind")
+@Label("Container Find")
+@Category({"Cargo", "Manifest"})
+@Description("A search for where a container is on the ship")
+final class ManifestFindEvent extends Event {
+
+	private static final ManifestFindEvent PROBE = new ManifestFindEvent();
+
+	@Label("Container Code")
+	String containerCode;
+
+	@Label("Stack")
+	@Description("The stack the container is in, or -1 if it is not on board or was not asked for")
+	int stack = -1;
+
+	@Label("Height")
+	@Description("The container's height in its stack, or -1 if it is not on board or was not asked for")
+	int height = -1;
+
+	@Label("Found")
+	boolean found;
+
+	/**
+	 * Starts timing a search.
+	 *
+	 * @return the event, or null if the event is not being recorded
+	 */
+	static ManifestFindEvent start() {
+		if (!PROBE.isEnabled())
+			return null;
+		ManifestFindEvent event = new ManifestFindEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes timing a search and records it, if it took long enough
+	 * to be of interest.
+	 *
+	 * @param packedCode the packed code searched for
+	 * @param stack the stack found, or -1
+	 * @param height the height found, or -1
+	 */
+	void finish(long packedCode, int stack, int height) {
+		end();
+		if (shouldCommit()) {
+			containerCode = ContainerRecords.codeString(packedCode);
+			this.stack = stack;
+			this.height = height;
+			found = stack >= 0 || height >= 0;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package asgn2Manifests;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+
+/**
+ * The secondary indexes of a cargo manifest, which list the codes of
+ * the containers on board by class, by owner, by gross weight and by
+ * dangerous goods category.  Each is kept up to date as containers are
+ * loaded and unloaded, so a query takes time proportional to the number
+ * of containers it finds.  The four share one table from codes to entry
+ * numbers, so each code is hashed once however many indexes hold it.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class ManifestIndexes {
+
+	/** Owner codes are the top part of a packed code. */
+	private static final long OWNER_DIVISOR = 10000000L;
+
+	private final HashMap<Class<?>, Integer> typeKeys = new HashMap<Class<?>, Integer>();
+	private final CodeIndex entries; // the entry number of each code, in place of a stack
+	private int[] freeEntries = new int[16]; // entry numbers given back by unloading
+	private int freeCount;
+	private final CodeBuckets byType;
+	private final CodeBuckets byOwner;
+	private final CodeBuckets byWeight; // one bucket per tonne
+	private final CodeBuckets byCategory;
+
+	/**
+	 * Constructs empty indexes.
+	 *
+	 * @param expectedSize the number of containers expected on board
+	 */
+	ManifestIndexes(int expectedSize) {
+		entries = new CodeIndex(expectedSize);
+		byType = new CodeBuckets(expectedSize);
+		byOwner = new CodeBuckets(expectedSize);
+		byWeight = new CodeBuckets(expectedSize);
+		byCategory = new CodeBuckets(0);
+	}
+
+	/**
+	 * Adds a container that has been loaded.
+	 *
+	 * @param container the container
+	 */
+	void add(FreightContainer container) {
+		long code = container.getCode().asLong();
+		int entry = freeCount > 0 ? freeEntries[--freeCount] : entries.size();
+		entries.put(code, entry, 0);
+		Integer typeKey = typeKeys.get(container.getClass());
+		if (typeKey == null) {
+			typeKey = typeKeys.size();
+			typeKeys.put(container.getClass(), typeKey);
+		}
+		byType.add(entry, typeKey, code);
+		byOwner.add(entry, ownerKey(code), code);
+		byWeight.add(entry, container.getGrossWeight(), code);
+		if (container instanceof DangerousGoodsContainer)
+			byCategory.add(entry, ((DangerousGoodsContainer) container).getCategory(), code);
+	}
+
+	/**
+	 * Removes a container that has been unloaded.
+	 *
+	 * @param code the container's packed code
+	 */
+	void remove(long code) {
+		int entry = entries.stackOf(code);
+		if (entry < 0)
+			return;
+		entries.remove(code);
+		byType.remove(entry);
+		byOwner.remove(entry);
+		byWeight.remove(entry);
+		byCategory.remove(entry);
+		if (freeCount == freeEntries.length)
+			freeEntries = Arrays.copyOf(freeEntries, freeCount * 2);
+		freeEntries[freeCount++] = entry;
+	}
+
+	/**
+	 * Returns the containers of a class, as a bucket of the type index.
+	 *
+	 * @param type the class
+	 * @return the bucket number, or -1 if no container of the class has
+	 * been loaded
+	 */
+	int typeKey(Class<?> type) {
+		Integer typeKey = typeKeys.get(type);
+		return typeKey == null ? -1 : typeKey;
+	}
+
+	/**
+	 * Returns the bucket of the owner index for a code.
+	 *
+	 * @param code a packed container code
+	 * @return the owner's bucket number
+	 */
+	static int ownerKey(long code) {
+		return (int) (code / OWNER_DIVISOR);
+	}
+
+	CodeBuckets byType() {
+		return byType;
+	}
+
+	CodeBuckets byOwner() {
+		return byOwner;
+	}
+
+	CodeBuckets byWeight() {
+		return byWeight;
+	}
+
+	CodeBuckets byCategory() {
+		return byCategory;
+	}
+}
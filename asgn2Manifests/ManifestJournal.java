@@ -0,0 +1,348 @@
+package asgn2Manifests;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.CargoException;
+
+/**
+ * An append-only file recording every load and unload made to a cargo
+ * manifest, so that the manifest can be rebuilt after a crash by
+ * replaying the file.
+ * <p>
+ * The file starts with a header giving the manifest's parameters,
+ * followed by fixed-size binary records:
+ * <pre>
+ * header:  int magic, int version, int numStacks, int maxHeight, int maxWeight
+ * record:  byte operation, byte type, byte grossWeight, byte unused,
+ *          int detail, long packedCode, int crc32
+ * </pre>
+ * (all big-endian).  A record that was only partly written when the
+ * process died fails its checksum and ends the replay.
+ * <p>
+ * Records are appended to a memory buffer and made durable by
+ * <code>awaitDurable</code> using group commit.  The first thread to
+ * wait writes out everything buffered so far and forces it to disk
+ * once.  Threads whose records were included in that write simply
+ * return, and the others wait for the next one.  Under load, each
+ * fsync therefore covers many operations.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class ManifestJournal implements Closeable {
+
+	private static final int MAGIC = 0x43474f4a; // "CGOJ"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 5 * 4;
+	static final int RECORD_SIZE = 4 + 4 + 8 + 4;
+	private static final int INITIAL_BUFFER = 256 * RECORD_SIZE;
+
+	private static final byte LOAD = 1;
+	private static final byte UNLOAD = 2;
+
+	private final FileChannel channel;
+	private final int numStacks;
+	private final int maxHeight;
+	private final int maxWeight;
+	private final CRC32 crc = new CRC32();
+
+	// guarded by this
+	private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER); // appended, not yet written
+	private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER);
+	private long appended; // sequence number of the last record appended
+	private long durable; // sequence number of the last record forced to disk
+	private boolean flushing; // a thread is writing a batch
+	private IOException failure; // a write has failed, so nothing more is durable
+	private long forces; // times the file has been forced since it was opened
+
+	private ManifestJournal(FileChannel channel, int numStacks, int maxHeight, int maxWeight) {
+		this.channel = channel;
+		this.numStacks = numStacks;
+		this.maxHeight = maxHeight;
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Creates a new journal file for a manifest with the given parameters.
+	 *
+	 * @param file the journal file, which must not already exist
+	 * @param numStacks the number of stacks on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * @return the journal, ready for appending
+	 * @throws IOException if the file exists or cannot be written
+	 */
+	public static ManifestJournal create(Path file, int numStacks, int maxHeight, int maxWeight)
+	throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putInt(numStacks).putInt(maxHeight).putInt(maxWeight);
+		header.flip();
+		while (header.hasRemaining())
+			channel.write(header);
+		channel.force(true);
+		return new ManifestJournal(channel, numStacks, maxHeight, maxWeight);
+	}
+
+	/**
+	 * Opens an existing journal file.  Its records should then be
+	 * replayed, which also readies the journal for appending.
+	 *
+	 * @param file the journal file
+	 * @return the journal
+	 * @throws IOException if the file cannot be read or is not a journal
+	 */
+	public static ManifestJournal open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && channel.read(header) >= 0)
+			;
+		header.flip();
+		if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+			channel.close();
+			throw new IOException(file + " is not a manifest journal");
+		}
+		return new ManifestJournal(channel, header.getInt(), header.getInt(), header.getInt());
+	}
+
+	/**
+	 * Returns the number of stacks of the journalled manifest.
+	 * @return the number of stacks
+	 */
+	public int getNumStacks() {
+		return numStacks;
+	}
+
+	/**
+	 * Returns the maximum stack height of the journalled manifest.
+	 * @return the maximum height
+	 */
+	public int getMaxHeight() {
+		return maxHeight;
+	}
+
+	/**
+	 * Returns the weight limit of the journalled manifest.
+	 * @return the maximum weight (in tonnes)
+	 */
+	public int getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Applies every complete record in the journal to the given manifest,
+	 * in order, and positions the journal after the last one, discarding
+	 * any partly written record at the end.
+	 *
+	 * @param target the manifest to rebuild, which should be empty and have
+	 * the journal's parameters
+	 * @return the number of records replayed
+	 * @throws IOException if the file cannot be read, or a record
+	 * cannot be applied to the manifest
+	 */
+	public long replay(CargoManifest target) throws IOException {
+		ByteBuffer records = ByteBuffer.allocate(INITIAL_BUFFER);
+		long position = HEADER_SIZE;
+		long count = 0;
+		channel.position(position);
+		reading:
+		while (channel.read(records) >= 0 || records.position() > 0) {
+			records.flip();
+			if (records.remaining() < RECORD_SIZE && channel.position() >= channel.size())
+				break; // a partial record at the end of the file
+			while (records.remaining() >= RECORD_SIZE) {
+				if (!apply(records, target))
+					break reading;
+				position += RECORD_SIZE;
+				count++;
+			}
+			records.compact();
+		}
+		channel.truncate(position);
+		channel.position(position);
+		synchronized (this) {
+			appended = durable = count;
+		}
+		return count;
+	}
+
+	/**
+	 * Applies the record at the buffer's position, advancing past it.
+	 *
+	 * @return false if the record is damaged, which ends the replay
+	 */
+	private boolean apply(ByteBuffer records, CargoManifest target) throws IOException {
+		int start = records.position();
+		int end = records.limit();
+		crc.reset();
+		records.limit(start + RECORD_SIZE - 4);
+		crc.update(records);
+		records.limit(end);
+		if ((int) crc.getValue() != records.getInt()) {
+			records.position(start);
+			return false;
+		}
+		records.position(start);
+		byte operation = records.get();
+		byte type = records.get();
+		int grossWeight = records.get();
+		records.get();
+		int detail = records.getInt();
+		long code = records.getLong();
+		records.getInt();
+
+		ManifestOutcome outcome;
+		if (operation == LOAD) {
+			try {
+				outcome = target.tryLoadContainer(ContainerRecords.toContainer(code, type, grossWeight, detail));
+			} catch (CargoException e) {
+				throw new IOException("Invalid container in journal: " + e.getMessage());
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Invalid container in journal: " + e.getMessage());
+			}
+		} else if (operation == UNLOAD) {
+			outcome = target.tryUnloadContainer(code);
+		} else {
+			throw new IOException("Unknown journal operation " + operation);
+		}
+		if (!outcome.isSuccess())
+			throw new IOException("Journal does not match manifest: " + outcome.getMessage());
+		return true;
+	}
+
+	/**
+	 * Appends a record of a container having been loaded.  The record
+	 * is not durable until <code>awaitDurable</code> has returned.
+	 *
+	 * @param container the container loaded
+	 * @return the record's sequence number
+	 */
+	public synchronized long appendLoad(FreightContainer container) {
+		return append(LOAD, ContainerRecords.typeOf(container), container.getGrossWeight(),
+				ContainerRecords.detailOf(container), container.getCode().asLong());
+	}
+
+	/**
+	 * Appends a record of a container having been unloaded.  The record
+	 * is not durable until <code>awaitDurable</code> has returned.
+	 *
+	 * @param packedCode the packed code of the container unloaded
+	 * @return the record's sequence number
+	 */
+	public synchronized long appendUnload(long packedCode) {
+		return append(UNLOAD, (byte) 0, 0, 0, packedCode);
+	}
+
+	private long append(byte operation, byte type, int grossWeight, int detail, long code) {
+		if (pending.remaining() < RECORD_SIZE) {
+			ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+			pending.flip();
+			larger.put(pending);
+			pending = larger;
+		}
+		int start = pending.position();
+		pending.put(operation).put(type).put((byte) grossWeight).put((byte) 0).putInt(detail).putLong(code);
+		ByteBuffer record = pending.duplicate();
+		record.position(start).limit(start + RECORD_SIZE - 4);
+		crc.reset();
+		crc.update(record);
+		pending.putInt((int) crc.getValue());
+		return ++appended;
+	}
+
+	/**
+	 * Waits until the record with the given sequence number, and all
+	 * before it, have been forced to disk.
+	 *
+	 * @param sequence a sequence number returned by an append method
+	 * @throws IOException if writing the journal failed
+	 */
+	public void awaitDurable(long sequence) throws IOException {
+		ByteBuffer batch;
+		long upTo;
+		synchronized (this) {
+			while (true) {
+				if (durable >= sequence)
+					return;
+				if (failure != null)
+					throw failure;
+				if (!flushing)
+					break;
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted waiting for the journal");
+				}
+			}
+			// lead the next group commit
+			flushing = true;
+			batch = pending;
+			pending = spare;
+			upTo = appended;
+		}
+
+		IOException error = null;
+		try {
+			batch.flip();
+			while (batch.hasRemaining())
+				channel.write(batch);
+			channel.force(false);
+		} catch (IOException e) {
+			error = e;
+		}
+
+		synchronized (this) {
+			batch.clear();
+			spare = batch;
+			flushing = false;
+			if (error == null) {
+				durable = upTo;
+				forces++;
+			} else
+				failure = error;
+			notifyAll();
+		}
+		if (error != null)
+			throw error;
+	}
+
+	/**
+	 * Returns how many times records have been forced to disk since the
+	 * journal was opened.  With group commit this is usually far fewer
+	 * than the number of records appended.
+	 *
+	 * @return the number of forces
+	 */
+	public synchronized long getForceCount() {
+		return forces;
+	}
+
+	/**
+	 * Forces any outstanding records to disk and closes the file.
+	 *
+	 * @throws IOException if the records cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			long last;
+			synchronized (this) {
+				last = appended;
+			}
+			if (failure == null)
+				awaitDurable(last);
+		} finally {
+			channel.close();
+		}
+	}
+}
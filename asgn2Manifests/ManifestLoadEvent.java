@@ -0,0 +1,69 @@
+package asgn2Manifests;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import asgn2Containers.FreightContainer;
+
+/**
+ * A Java Flight Recorder event for an attempt to load a container,
+ * whatever its outcome.  The duration includes any time spent waiting
+ * for the manifest's lock.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+@Name("asgn2.ManifestLoad")
+@Label("Container Load")
+@Category({"Cargo", "Manifest"})
+@Description("An attempt to load a container onto the ship")
+final class ManifestLoadEvent extends Event {
+
+	private static final ManifestLoadEvent PROBE = new ManifestLoadEvent();
+
+	@Label("Container Code")
+	String containerCode;
+
+	@Label("Stack")
+	@Description("The stack the container was put on, or -1 if it was not loaded")
+	int stack = -1;
+
+	@Label("Height")
+	@Description("The container's height in its stack, or -1 if it was not loaded")
+	int height = -1;
+
+	@Label("Outcome")
+	String outcome;
+
+	/**
+	 * Starts timing a load.
+	 *
+	 * @return the event, or null if the event is not being recorded
+	 */
+	static ManifestLoadEvent start() {
+		if (!PROBE.isEnabled())
+			return null;
+		ManifestLoadEvent event = new ManifestLoadEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes timing a load and records it, if it took long enough to
+	 * be of interest.
+	 *
+	 * @param container the container
+	 * @param outcome what happened
+	 */
+	void finish(FreightContainer container, ManifestOutcome outcome) {
+		end();
+		if (shouldCommit()) {
+			containerCode = container.getCode().toString();
+			this.outcome = outcome.name();
+			commit();
+		}
+	}
+}
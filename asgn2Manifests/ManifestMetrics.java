@@ -0,0 +1,235 @@
+package asgn2Manifests;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms for a cargo manifest: how many loads
+ * and unloads had each outcome, and how long loads, unloads and finds
+ * (<code>whichStack</code> and <code>howHigh</code>) took, including
+ * any time spent waiting for the manifest's lock.
+ * <p>
+ * A manifest records nothing until it is given a metrics object with
+ * <code>CargoManifest.setMetrics</code>, and then each operation costs
+ * two clock reads and a few atomic increments, with no allocation.  One
+ * metrics object may be shared by several manifests to total them.
+ * <p>
+ * The figures can be read through JMX once <code>register</code> has
+ * been called, or as plain text, one figure per line, from <code>dump</code>:
+ * <pre>
+ * manifest_operations_total{operation="load",outcome="LOADED"} 1042
+ * manifest_latency_nanos{operation="load",quantile="0.99"} 2047
+ * manifest_latency_nanos_count{operation="load"} 1090
+ * </pre>
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class ManifestMetrics implements ManifestMetricsMXBean {
+
+	private static final ManifestOutcome[] OUTCOMES = ManifestOutcome.values();
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private final AtomicLongArray outcomes = new AtomicLongArray(OUTCOMES.length);
+	private final LatencyHistogram loads = new LatencyHistogram();
+	private final LatencyHistogram unloads = new LatencyHistogram();
+	private final LatencyHistogram finds = new LatencyHistogram();
+
+	/**
+	 * Records a load attempt.
+	 *
+	 * @param outcome what happened
+	 * @param nanos how long it took
+	 */
+	void recordLoad(ManifestOutcome outcome, long nanos) {
+		outcomes.incrementAndGet(outcome.ordinal());
+		loads.record(nanos);
+	}
+
+	/**
+	 * Records an unload attempt.
+	 *
+	 * @param outcome what happened
+	 * @param nanos how long it took
+	 */
+	void recordUnload(ManifestOutcome outcome, long nanos) {
+		outcomes.incrementAndGet(outcome.ordinal());
+		unloads.record(nanos);
+	}
+
+	/**
+	 * Records a search for a container.
+	 *
+	 * @param nanos how long it took
+	 */
+	void recordFind(long nanos) {
+		finds.record(nanos);
+	}
+
+	/**
+	 * Returns the number of attempts with the given outcome.
+	 *
+	 * @param outcome a load or unload outcome
+	 * @return the number of attempts
+	 */
+	public long getCount(ManifestOutcome outcome) {
+		return outcomes.get(outcome.ordinal());
+	}
+
+	@Override
+	public long getLoaded() {
+		return getCount(ManifestOutcome.LOADED);
+	}
+
+	@Override
+	public long getUnloaded() {
+		return getCount(ManifestOutcome.UNLOADED);
+	}
+
+	@Override
+	public long getOverweight() {
+		return getCount(ManifestOutcome.OVERWEIGHT);
+	}
+
+	@Override
+	public long getDuplicate() {
+		return getCount(ManifestOutcome.DUPLICATE);
+	}
+
+	@Override
+	public long getNoSpace() {
+		return getCount(ManifestOutcome.NO_SPACE);
+	}
+
+	@Override
+	public long getNotAccessible() {
+		return getCount(ManifestOutcome.NOT_ACCESSIBLE);
+	}
+
+	@Override
+	public long getNotFound() {
+		return getCount(ManifestOutcome.NOT_FOUND);
+	}
+
+	/**
+	 * Returns the histogram of load times.
+	 * @return the histogram
+	 */
+	public LatencyHistogram getLoadHistogram() {
+		return loads;
+	}
+
+	/**
+	 * Returns the histogram of unload times.
+	 * @return the histogram
+	 */
+	public LatencyHistogram getUnloadHistogram() {
+		return unloads;
+	}
+
+	/**
+	 * Returns the histogram of find times.
+	 * @return the histogram
+	 */
+	public LatencyHistogram getFindHistogram() {
+		return finds;
+	}
+
+	@Override
+	public LatencySummary getLoadLatency() {
+		return loads.summarize();
+	}
+
+	@Override
+	public LatencySummary getUnloadLatency() {
+		return unloads.summarize();
+	}
+
+	@Override
+	public LatencySummary getFindLatency() {
+		return finds.summarize();
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < OUTCOMES.length; i++)
+			outcomes.set(i, 0);
+		loads.reset();
+		unloads.reset();
+		finds.reset();
+	}
+
+	/**
+	 * Writes every counter and latency as plain text, one figure per line.
+	 *
+	 * @param out where to write the figures
+	 * @throws IOException if the destination cannot be written
+	 */
+	public void appendTo(Appendable out) throws IOException {
+		for (ManifestOutcome outcome : OUTCOMES) {
+			out.append("manifest_operations_total{operation=\"")
+					.append(outcome == ManifestOutcome.LOADED || outcome == ManifestOutcome.OVERWEIGHT
+							|| outcome == ManifestOutcome.DUPLICATE || outcome == ManifestOutcome.NO_SPACE
+							? "load" : "unload")
+					.append("\",outcome=\"").append(outcome.name()).append("\"} ")
+					.append(Long.toString(getCount(outcome))).append('\n');
+		}
+		appendHistogram(out, "load", loads);
+		appendHistogram(out, "unload", unloads);
+		appendHistogram(out, "find", finds);
+	}
+
+	private static void appendHistogram(Appendable out, String operation, LatencyHistogram histogram)
+	throws IOException {
+		for (double quantile : QUANTILES) {
+			out.append("manifest_latency_nanos{operation=\"").append(operation)
+					.append("\",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+					.append(Long.toString(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+		}
+		out.append("manifest_latency_nanos_max{operation=\"").append(operation).append("\"} ")
+				.append(Long.toString(histogram.getMax())).append('\n');
+		out.append("manifest_latency_nanos_count{operation=\"").append(operation).append("\"} ")
+				.append(Long.toString(histogram.getCount())).append('\n');
+	}
+
+	@Override
+	public String dump() {
+		StringBuilder out = new StringBuilder();
+		try {
+			appendTo(out);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // cannot happen, StringBuilder does not throw
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server.
+	 *
+	 * @param name a name for the manifest, unique within this JVM
+	 * @return the name the metrics are registered under, for <code>unregister</code>
+	 * @throws JMException if the name is in use or cannot be registered
+	 */
+	public ObjectName register(String name) throws JMException {
+		ObjectName objectName = new ObjectName("asgn2Manifests:type=ManifestMetrics,name="
+				+ ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+
+	/**
+	 * Removes metrics from the platform MBean server.
+	 *
+	 * @param objectName the name returned by <code>register</code>
+	 * @throws JMException if nothing is registered under that name
+	 */
+	public static void unregister(ObjectName objectName) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.unregisterMBean(objectName);
+	}
+}
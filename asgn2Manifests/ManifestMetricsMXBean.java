@@ -0,0 +1,48 @@
+package asgn2Manifests;
+
+/**
+ * The management interface of <code>ManifestMetrics</code>, through
+ * which the counters and latencies of a cargo manifest can be read with
+ * JConsole, Mission Control or any other JMX client.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public interface ManifestMetricsMXBean {
+
+	/** @return the number of containers loaded */
+	long getLoaded();
+
+	/** @return the number of containers unloaded */
+	long getUnloaded();
+
+	/** @return the number of loads rejected for exceeding the weight limit */
+	long getOverweight();
+
+	/** @return the number of loads rejected because the code was already on board */
+	long getDuplicate();
+
+	/** @return the number of loads rejected for lack of a suitable stack */
+	long getNoSpace();
+
+	/** @return the number of unloads rejected because the container was covered */
+	long getNotAccessible();
+
+	/** @return the number of unloads rejected because the container was not on board */
+	long getNotFound();
+
+	/** @return the times taken by loads, whatever their outcome */
+	LatencySummary getLoadLatency();
+
+	/** @return the times taken by unloads, whatever their outcome */
+	LatencySummary getUnloadLatency();
+
+	/** @return the times taken to find where a container is */
+	LatencySummary getFindLatency();
+
+	/** @return every counter and latency, in the form of <code>ManifestMetrics.dump</code> */
+	String dump();
+
+	/** Sets every counter back to zero and discards all times recorded. */
+	void reset();
+}
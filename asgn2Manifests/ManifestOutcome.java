@@ -0,0 +1,47 @@
+package asgn2Manifests;
+
+/**
+ * The outcome of an attempt to load or unload a container, as returned
+ * by <code>CargoManifest.tryLoadContainer</code> and
+ * <code>CargoManifest.tryUnloadContainer</code>.  Each reason an attempt can
+ * be rejected has its own constant, carrying the message that the
+ * throwing methods put in their <code>ManifestException</code>.
+ * 
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public enum ManifestOutcome {
+	
+	LOADED("The container was loaded"),
+	UNLOADED("The container was unloaded"),
+	OVERWEIGHT("Adding this container would exceed the ship's weight limit"),
+	DUPLICATE("A container with the same code is already on board"),
+	NO_SPACE("No suitable space can be found for this container"),
+	NOT_ACCESSIBLE("The container is not accessible"),
+	NOT_FOUND("No such container");
+	
+	private final String message;
+	
+	private ManifestOutcome(String message) {
+		this.message = message;
+	}
+	
+	/**
+	 * Returns true iff the container was loaded or unloaded as requested.
+	 * 
+	 * @return true for <code>LOADED</code> and <code>UNLOADED</code>,
+	 * false for the rejections
+	 */
+	public boolean isSuccess() {
+		return this == LOADED || this == UNLOADED;
+	}
+	
+	/**
+	 * Returns a message describing this outcome.
+	 * 
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,115 @@
+package asgn2Manifests;
+
+import java.io.IOException;
+import java.util.List;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.FreightContainer;
+
+/**
+ * Writes the text form of a cargo manifest, as returned by
+ * <code>CargoManifest.toString</code>, one line per stack:
+ * <pre>
+ * || ABCU1234564 || DEFU2345670 ||
+ * ||*GHIU3456786*||
+ * ||  ||
+ * </pre>
+ * The container being searched for is marked with asterisks and an
+ * empty stack is shown as <code>||  ||</code>.  Output is appended
+ * straight to the destination without building intermediate strings.
+ * The length of each line is known in advance, so a buffer can be sized
+ * exactly before rendering.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class ManifestRenderer {
+
+	/** The length of the line for an empty stack, including the newline. */
+	private static final int EMPTY_LINE_LENGTH = 7;
+	/** The length of a line without its containers, including the newline. */
+	private static final int LINE_OVERHEAD = 3;
+	/** The length of each container on a line. */
+	private static final int CONTAINER_LENGTH = 15;
+
+	private ManifestRenderer() {
+	}
+
+	/**
+	 * Returns the length of the line for a stack of the given height.
+	 *
+	 * @param height the number of containers in the stack
+	 * @return the number of characters in the line, including the newline
+	 */
+	public static int lineLength(int height) {
+		return height == 0 ? EMPTY_LINE_LENGTH : LINE_OVERHEAD + height * CONTAINER_LENGTH;
+	}
+
+	/**
+	 * Returns the number of containers on a line of the given length,
+	 * as written by <code>appendStack</code>.
+	 *
+	 * @param lineLength the number of characters in the line, including
+	 * the newline
+	 * @return the height of the stack the line shows
+	 */
+	public static int heightOf(int lineLength) {
+		return lineLength == EMPTY_LINE_LENGTH ? 0 : (lineLength - LINE_OVERHEAD) / CONTAINER_LENGTH;
+	}
+
+	/**
+	 * Appends the line for one stack.
+	 *
+	 * @param out where to append the line
+	 * @param stack the stack's containers, bottom first
+	 * @param toFind the container to mark, or <code>null</code>
+	 * @throws IOException if the destination cannot be written
+	 */
+	public static void appendStack(Appendable out, List<FreightContainer> stack, ContainerCode toFind)
+	throws IOException {
+		out.append('|');
+		for (int j = 0; j < stack.size(); ++j) {
+			ContainerCode code = stack.get(j).getCode();
+			if (toFind != null && code.equals(toFind)) {
+				out.append("|*");
+				code.appendTo(out);
+				out.append("*|");
+			} else {
+				out.append("| ");
+				code.appendTo(out);
+				out.append(" |");
+			}
+		}
+		if (stack.isEmpty())
+			out.append("|  ||\n");
+		else
+			out.append("|\n");
+	}
+
+	/**
+	 * Appends the line for one stack in a store, without making any
+	 * container objects.
+	 */
+	static void appendStack(Appendable out, StackStore store, int stackNo, ContainerCode toFind)
+	throws IOException {
+		long found = toFind == null ? -1L : toFind.asLong();
+		int height = store.height(stackNo);
+		out.append('|');
+		for (int j = 0; j < height; ++j) {
+			long code = store.codeAt(stackNo, j);
+			if (code == found) {
+				out.append("|*");
+				ContainerCode.appendTo(code, out);
+				out.append("*|");
+			} else {
+				out.append("| ");
+				ContainerCode.appendTo(code, out);
+				out.append(" |");
+			}
+		}
+		if (height == 0)
+			out.append("|  ||\n");
+		else
+			out.append("|\n");
+	}
+}
@@ -0,0 +1,179 @@
+package asgn2Manifests;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.CargoException;
+import asgn2Exceptions.ManifestException;
+
+/**
+ * Saves a whole cargo manifest to a compact binary file and restores it,
+ * which is much faster than loading every container again.
+ * <p>
+ * The file is laid out as follows (all big-endian):
+ * <pre>
+ * header:    int magic, int version, int numStacks, int maxHeight,
+ *            int maxWeight, int numContainers
+ * stacks:    int height, for each stack in turn
+ * containers: long packedCode, int detail, byte type, byte grossWeight,
+ *            short unused, for each container, stack by stack, bottom first
+ * trailer:   int crc32 of everything before it
+ * </pre>
+ * The detail is the dangerous goods category or the refrigerated
+ * temperature.  Restoring reads the whole file with one bulk read,
+ * puts each container straight back where it was, and then indexes the
+ * whole manifest in one pass.  The placement rules are not run again,
+ * but the snapshot is checked against them (heights, stack types,
+ * weight and duplicate codes) before it is trusted.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class ManifestSnapshot {
+
+	private static final int MAGIC = 0x43474f53; // "CGOS"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 6 * 4;
+	private static final int CONTAINER_SIZE = 8 + 4 + 1 + 1 + 2;
+	private static final int TRAILER_SIZE = 4;
+
+	private ManifestSnapshot() {
+	}
+
+	/**
+	 * Saves a snapshot of the manifest as it is at one moment.  The file
+	 * is replaced as a whole, so a crash while saving leaves any earlier
+	 * snapshot intact.
+	 *
+	 * @param manifest the manifest to save
+	 * @param file the snapshot file, which is replaced if it exists
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void save(CargoManifest manifest, Path file) throws IOException {
+		FreightContainer[][] stacks = manifest.copyStacks();
+		int numContainers = 0;
+		for (FreightContainer[] stack : stacks)
+			numContainers += stack.length;
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + stacks.length * 4
+				+ numContainers * CONTAINER_SIZE + TRAILER_SIZE);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(stacks.length)
+				.putInt(manifest.getMaxHeight()).putInt(manifest.getMaxWeight()).putInt(numContainers);
+		for (FreightContainer[] stack : stacks)
+			buffer.putInt(stack.length);
+		for (FreightContainer[] stack : stacks) {
+			for (FreightContainer container : stack) {
+				buffer.putLong(container.getCode().asLong())
+						.putInt(ContainerRecords.detailOf(container))
+						.put(ContainerRecords.typeOf(container))
+						.put(container.getGrossWeight().byteValue())
+						.putShort((short) 0);
+			}
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, buffer.position());
+		buffer.putInt((int) crc.getValue());
+		buffer.flip();
+
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		try {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			channel.force(true);
+		} finally {
+			channel.close();
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Restores a manifest from a snapshot.
+	 *
+	 * @param file the snapshot file
+	 * @return a new manifest holding the containers in the snapshot, in
+	 * the same positions
+	 * @throws IOException if the file cannot be read, is not a snapshot, or
+	 * is damaged
+	 * @throws ManifestException if the snapshot records invalid parameters
+	 */
+	public static CargoManifest restore(Path file) throws IOException, ManifestException {
+		ByteBuffer buffer;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE)
+				throw new IOException(file + " is not a manifest snapshot");
+			buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+				;
+		} finally {
+			channel.close();
+		}
+		buffer.flip();
+
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+			throw new IOException(file + " is not a manifest snapshot");
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, buffer.limit() - TRAILER_SIZE);
+		if ((int) crc.getValue() != buffer.getInt(buffer.limit() - TRAILER_SIZE))
+			throw new IOException(file + " is damaged");
+
+		int numStacks = buffer.getInt();
+		int maxHeight = buffer.getInt();
+		int maxWeight = buffer.getInt();
+		int numContainers = buffer.getInt();
+		if (numStacks < 0 || numContainers < 0 || buffer.limit() != HEADER_SIZE
+				+ (long) numStacks * 4 + (long) numContainers * CONTAINER_SIZE + TRAILER_SIZE)
+			throw new IOException(file + " is damaged");
+
+		// fill the stacks directly, then index them all in one pass
+		StackStore store = new ObjectStackStore(CargoManifest.checkParameters(numStacks, maxHeight, maxWeight));
+		int[] heights = new int[numStacks];
+		long total = 0;
+		for (int i = 0; i < numStacks; i++) {
+			heights[i] = buffer.getInt();
+			if (heights[i] < 0 || heights[i] > maxHeight)
+				throw new IOException("Stack " + i + " in the snapshot is too high");
+			total += heights[i];
+		}
+		if (total != numContainers)
+			throw new IOException(file + " is damaged");
+
+		for (int i = 0; i < numStacks; i++) {
+			byte stackType = 0;
+			for (int j = 0; j < heights[i]; j++) {
+				long code = buffer.getLong();
+				int detail = buffer.getInt();
+				byte type = buffer.get();
+				int grossWeight = buffer.get();
+				buffer.getShort();
+				if (j == 0)
+					stackType = type;
+				else if (type != stackType)
+					throw new IOException("Stack " + i + " in the snapshot holds mixed containers");
+
+				try {
+					store.push(i, ContainerRecords.toContainer(code, type, grossWeight, detail));
+				} catch (CargoException e) {
+					throw new IOException("Invalid container in snapshot: " + e.getMessage());
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Invalid container in snapshot: " + e.getMessage());
+				}
+			}
+		}
+		try {
+			return new CargoManifest(store, maxHeight, maxWeight);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid snapshot: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package asgn2Manifests;
+
+import asgn2Containers.FreightContainer;
+
+/**
+ * The totals of a cargo manifest at one moment: how many containers
+ * are on board and how heavy they are, by stack and by type, how many
+ * dangerous goods containers there are of each category, and how much
+ * room is left.  A manifest keeps these totals up to date as containers
+ * are loaded and unloaded, so taking a snapshot costs only a copy of
+ * them, and the snapshot can then be read freely by any thread.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class ManifestStatistics {
+
+	private final int maxHeight;
+	private final int maxWeight;
+	private final int containerCount;
+	private final int totalWeight;
+	private final int[] stackHeights;
+	private final int[] stackWeights;
+	private final Class<?>[] types; // container classes, by type id
+	private final int[] typeCounts; // by type id
+	private final int[] typeWeights; // by type id
+	private final int[] categoryCounts; // by dangerous goods category
+
+	/**
+	 * Constructs a snapshot, taking ownership of the arrays given.  The
+	 * per-type totals may be longer than the array of classes.
+	 */
+	ManifestStatistics(int maxHeight, int maxWeight, int containerCount, int totalWeight,
+			int[] stackHeights, int[] stackWeights, Class<?>[] types, int[] typeCounts,
+			int[] typeWeights, int[] categoryCounts) {
+		this.maxHeight = maxHeight;
+		this.maxWeight = maxWeight;
+		this.containerCount = containerCount;
+		this.totalWeight = totalWeight;
+		this.stackHeights = stackHeights;
+		this.stackWeights = stackWeights;
+		this.types = types;
+		this.typeCounts = typeCounts;
+		this.typeWeights = typeWeights;
+		this.categoryCounts = categoryCounts;
+	}
+
+	/**
+	 * Returns the number of stacks on deck.
+	 * @return the number of stacks
+	 */
+	public int getNumStacks() {
+		return stackHeights.length;
+	}
+
+	/**
+	 * Returns the number of containers on board.
+	 * @return the number of containers
+	 */
+	public int getContainerCount() {
+		return containerCount;
+	}
+
+	/**
+	 * Returns the total weight of the containers on board.
+	 * @return the weight (in tonnes)
+	 */
+	public int getTotalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * Returns how much more weight may be loaded before the ship's
+	 * weight limit is reached.
+	 * @return the remaining weight allowance (in tonnes)
+	 */
+	public int getWeightHeadroom() {
+		return maxWeight - totalWeight;
+	}
+
+	/**
+	 * Returns the fraction of all the stack space on deck that is filled.
+	 * @return a fraction between 0 and 1
+	 */
+	public double getFill() {
+		return (double) containerCount / ((long) stackHeights.length * maxHeight);
+	}
+
+	/**
+	 * Returns the number of containers in a stack.
+	 * @param stackNo the stack number
+	 * @return the stack's height
+	 * @throws IndexOutOfBoundsException if there is no such stack
+	 */
+	public int getStackHeight(int stackNo) {
+		return stackHeights[stackNo];
+	}
+
+	/**
+	 * Returns the total weight of the containers in a stack.
+	 * @param stackNo the stack number
+	 * @return the stack's weight (in tonnes)
+	 * @throws IndexOutOfBoundsException if there is no such stack
+	 */
+	public int getStackWeight(int stackNo) {
+		return stackWeights[stackNo];
+	}
+
+	/**
+	 * Returns the fraction of a stack's allowed height that is filled.
+	 * @param stackNo the stack number
+	 * @return a fraction between 0 and 1
+	 * @throws IndexOutOfBoundsException if there is no such stack
+	 */
+	public double getStackFill(int stackNo) {
+		return (double) stackHeights[stackNo] / maxHeight;
+	}
+
+	/**
+	 * Returns the number of containers of a class on board.
+	 * @param type the container class, e.g., <code>RefrigeratedContainer.class</code>
+	 * @return the number of containers of that class
+	 */
+	public int getCountOfType(Class<? extends FreightContainer> type) {
+		int typeId = typeId(type);
+		return typeId < 0 ? 0 : typeCounts[typeId];
+	}
+
+	/**
+	 * Returns the total weight of the containers of a class on board.
+	 * @param type the container class
+	 * @return the weight of containers of that class (in tonnes)
+	 */
+	public int getWeightOfType(Class<? extends FreightContainer> type) {
+		int typeId = typeId(type);
+		return typeId < 0 ? 0 : typeWeights[typeId];
+	}
+
+	/**
+	 * Returns the number of dangerous goods containers of a category
+	 * on board.
+	 * @param category the dangerous goods category (1-9)
+	 * @return the number of containers of that category, which is zero
+	 * for a category outside the range
+	 */
+	public int getDangerousGoodsCount(int category) {
+		return category > 0 && category < categoryCounts.length ? categoryCounts[category] : 0;
+	}
+
+	private int typeId(Class<?> type) {
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == type)
+				return i;
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,67 @@
+package asgn2Manifests;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for an attempt to unload a container,
+ * whatever its outcome.  The duration includes any time spent waiting
+ * for the manifest's lock.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+@Name("asgn2.ManifestUnload")
+@Label("Container Unload")
+@Category({"Cargo", "Manifest"})
+@Description("An attempt to unload a container from the ship")
+final class ManifestUnloadEvent extends Event {
+
+	private static final ManifestUnloadEvent PROBE = new ManifestUnloadEvent();
+
+	@Label("Container Code")
+	String containerCode;
+
+	@Label("Stack")
+	@Description("The stack the container was in, or -1 if it was not on board")
+	int stack = -1;
+
+	@Label("Height")
+	@Description("The container's height in its stack, or -1 if it was not on board")
+	int height = -1;
+
+	@Label("Outcome")
+	String outcome;
+
+	/**
+	 * Starts timing an unload.
+	 *
+	 * @return the event, or null if the event is not being recorded
+	 */
+	static ManifestUnloadEvent start() {
+		if (!PROBE.isEnabled())
+			return null;
+		ManifestUnloadEvent event = new ManifestUnloadEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Finishes timing an unload and records it, if it took long enough
+	 * to be of interest.
+	 *
+	 * @param packedCode the packed code of the container
+	 * @param outcome what happened
+	 */
+	void finish(long packedCode, ManifestOutcome outcome) {
+		end();
+		if (shouldCommit()) {
+			containerCode = ContainerRecords.codeString(packedCode);
+			this.outcome = outcome.name();
+			commit();
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package asgn2Manifests;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.FreightContainer;
+
+/**
+ * Applies every load and unload for a cargo manifest on one dedicated
+ * writer thread, as an alternative to locking.  Any number of threads
+ * may submit commands.  Commands go into a bounded lock-free queue, and
+ * the writer takes them off in batches, applies them in order and then
+ * completes each caller's future with the outcome.
+ * <p>
+ * The queue's capacity bounds how much work can be waiting.  When it
+ * is full, <code>submitLoad</code> and <code>submitUnload</code> wait
+ * for space, and <code>offerLoad</code> and <code>offerUnload</code>
+ * give up after a timeout.  Either way, a surge of requests slows the
+ * callers down instead of building an unbounded backlog.
+ * <p>
+ * While a writer is running, the manifest must not be changed in any
+ * other way.  Other threads may still read it at any time, since the
+ * manifest's read methods do not block its writer.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class ManifestWriter implements AutoCloseable {
+
+	/** The most commands applied before their callers are told the outcomes. */
+	private static final int BATCH_SIZE = 64;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final CargoManifest manifest;
+	private final CommandQueue<Command> queue;
+	private final Thread writer;
+	private volatile boolean closed;
+	private volatile boolean idle; // the writer is parked waiting for commands
+
+	/**
+	 * A load or unload waiting to be applied.
+	 */
+	private static class Command {
+		private final FreightContainer container; // the container to load, or null for an unload
+		private final ContainerCode code; // the container to unload
+		private final CompletableFuture<ManifestOutcome> result = new CompletableFuture<ManifestOutcome>();
+		private ManifestOutcome outcome;
+		private RuntimeException failure;
+
+		private Command(FreightContainer container, ContainerCode code) {
+			this.container = container;
+			this.code = code;
+		}
+	}
+
+	/**
+	 * Constructs a writer for the given manifest and starts its thread.
+	 *
+	 * @param manifest the manifest to be changed
+	 * @param capacity the most commands that may be waiting at once
+	 */
+	public ManifestWriter(CargoManifest manifest, int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("The capacity must be positive");
+		this.manifest = manifest;
+		this.queue = new CommandQueue<Command>(capacity);
+		this.writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "manifest-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Submits a container to be loaded, waiting for space in the queue
+	 * if it is full.
+	 *
+	 * @param newContainer the new freight container to be loaded
+	 * @return a future completed with the outcome of
+	 * <code>tryLoadContainer</code>
+	 * @throws IllegalStateException if the writer has been closed
+	 */
+	public CompletableFuture<ManifestOutcome> submitLoad(FreightContainer newContainer) {
+		return submit(new Command(newContainer, null), Long.MAX_VALUE);
+	}
+
+	/**
+	 * Submits a container to be unloaded, waiting for space in the queue
+	 * if it is full.
+	 *
+	 * @param containerId the code of the container to be unloaded
+	 * @return a future completed with the outcome of
+	 * <code>tryUnloadContainer</code>
+	 * @throws IllegalStateException if the writer has been closed
+	 */
+	public CompletableFuture<ManifestOutcome> submitUnload(ContainerCode containerId) {
+		return submit(new Command(null, containerId), Long.MAX_VALUE);
+	}
+
+	/**
+	 * Submits a container to be loaded, waiting at most the given time
+	 * for space in the queue.
+	 *
+	 * @param newContainer the new freight container to be loaded
+	 * @param timeout how long to wait for space
+	 * @param unit the unit of the timeout
+	 * @return a future completed with the outcome of
+	 * <code>tryLoadContainer</code>, or null if the queue stayed full
+	 * @throws IllegalStateException if the writer has been closed
+	 */
+	public CompletableFuture<ManifestOutcome> offerLoad(FreightContainer newContainer,
+			long timeout, TimeUnit unit) {
+		return submit(new Command(newContainer, null), unit.toNanos(timeout));
+	}
+
+	/**
+	 * Submits a container to be unloaded, waiting at most the given time
+	 * for space in the queue.
+	 *
+	 * @param containerId the code of the container to be unloaded
+	 * @param timeout how long to wait for space
+	 * @param unit the unit of the timeout
+	 * @return a future completed with the outcome of
+	 * <code>tryUnloadContainer</code>, or null if the queue stayed full
+	 * @throws IllegalStateException if the writer has been closed
+	 */
+	public CompletableFuture<ManifestOutcome> offerUnload(ContainerCode containerId,
+			long timeout, TimeUnit unit) {
+		return submit(new Command(null, containerId), unit.toNanos(timeout));
+	}
+
+	/**
+	 * Stops accepting commands, waits for the writer to apply those
+	 * already submitted, and stops the writer thread.  If the calling
+	 * thread is interrupted while waiting, it keeps waiting and its
+	 * interrupt status is set again before returning, since the queue
+	 * can only be emptied safely once the writer has stopped.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(writer);
+		boolean interrupted = false;
+		while (true) {
+			try {
+				writer.join();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		
+		// reject anything that slipped in as the writer stopped
+		Command command;
+		while ((command = queue.poll()) != null)
+			command.result.completeExceptionally(
+					new IllegalStateException("The manifest writer has been closed"));
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private CompletableFuture<ManifestOutcome> submit(Command command, long timeoutNanos) {
+		long deadline = System.nanoTime() + timeoutNanos;
+		do {
+			if (closed)
+				throw new IllegalStateException("The manifest writer has been closed");
+			if (queue.offer(command))
+				break;
+			if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - deadline >= 0)
+				return null; // still full
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+		} while (true);
+		
+		if (closed) {
+			// the writer may have stopped before this command was queued
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			command.result.completeExceptionally(
+					new IllegalStateException("The manifest writer has been closed"));
+		} else if (idle) {
+			LockSupport.unpark(writer);
+		}
+		return command.result;
+	}
+
+	/**
+	 * The writer thread's loop: take up to a batch of commands, apply
+	 * them in order, then complete their futures.
+	 */
+	private void drain() {
+		Command[] batch = new Command[BATCH_SIZE];
+		while (true) {
+			int count = 0;
+			Command command;
+			while (count < BATCH_SIZE && (command = queue.poll()) != null)
+				batch[count++] = command;
+
+			if (count == 0) {
+				if (closed && queue.isEmpty())
+					return;
+				idle = true;
+				if (queue.isEmpty() && !closed)
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+				idle = false;
+				continue;
+			}
+
+			for (int i = 0; i < count; i++)
+				apply(batch[i]);
+			for (int i = 0; i < count; i++) {
+				if (batch[i].failure != null)
+					batch[i].result.completeExceptionally(batch[i].failure);
+				else
+					batch[i].result.complete(batch[i].outcome);
+				batch[i] = null;
+			}
+		}
+	}
+
+	private void apply(Command command) {
+		try {
+			if (command.container != null)
+				command.outcome = manifest.tryLoadContainer(command.container);
+			else
+				command.outcome = manifest.tryUnloadContainer(command.code);
+		} catch (RuntimeException e) {
+			command.failure = e;
+		}
+	}
+}
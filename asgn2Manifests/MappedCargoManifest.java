@@ -0,0 +1,287 @@
+package asgn2Manifests;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.ManifestException;
+
+/**
+ * A cargo manifest that lives in a memory-mapped file.  Loads and
+ * unloads change the file in place, so reopening it after a restart
+ * needs no journal to replay.  It applies the same rules, and has the
+ * same operations, as <code>CargoManifest</code>.
+ * <p>
+ * The file is laid out as follows:
+ * <pre>
+ * header:  int magic, int version, int numStacks, int maxHeight,
+ *          int maxWeight, int currentWeight, long unused
+ * chunks:  as for BufferStackStore (a height per stack, then 16-byte
+ *          container records, maxHeight slots per stack), for as many
+ *          stacks as fit in 2 GB, then the same for the next stacks
+ * </pre>
+ * Each chunk is mapped separately, so the file is not limited to 2 GB,
+ * though a single stack must fit in a chunk.  A file of up to 2 GB has
+ * just one chunk.
+ * <p>
+ * Each change is made so that a crash at any moment leaves a valid
+ * manifest.  A load writes the container's record into a free slot and
+ * then raises the stack's height, and an unload just lowers the height.
+ * Either way, the single 4-byte height is the moment the change happens.
+ * The weight in the header is updated afterwards and is only
+ * informative; it is worked out again from the stacks on opening.
+ * <p>
+ * Changes reach the file when the operating system writes the mapped
+ * pages, which survives the process dying but not the machine failing.
+ * <code>flush</code> forces them to disk.
+ * <p>
+ * Only the stacks live in the file.  The code index, the totals and the
+ * sets used to find space are kept on the heap, at 32 to 64 bytes per
+ * container, and opening a file rebuilds them by reading every container
+ * in it.  Opening therefore takes time in proportion to the number of
+ * containers on board, and the heap needed grows with the manifest.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class MappedCargoManifest extends CargoManifest implements Closeable {
+
+	private static final int MAGIC = 0x43474f4d; // "CGOM"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	private static final int CURRENT_WEIGHT = 20; // offset in the header
+	private static final long CHUNK_SIZE = Integer.MAX_VALUE; // the most one mapping can hold
+
+	private final MappedStackStore store;
+
+	/**
+	 * A stack store in the mapped file, made of one buffer store per
+	 * chunk, which also keeps the weight in the header up to date.
+	 */
+	private static class MappedStackStore implements StackStore {
+		private final FileChannel channel;
+		private final MappedByteBuffer header;
+		private final MappedByteBuffer[] mappings;
+		private final BufferStackStore[] chunks;
+		private final int numStacks;
+		private final int stacksPerChunk;
+
+		private MappedStackStore(FileChannel channel, int numStacks, int maxHeight) throws IOException {
+			this.channel = channel;
+			this.numStacks = numStacks;
+			this.stacksPerChunk = stacksPerChunk(numStacks, maxHeight);
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			int count = (numStacks + stacksPerChunk - 1) / stacksPerChunk;
+			mappings = new MappedByteBuffer[count];
+			chunks = new BufferStackStore[count];
+			long position = HEADER_SIZE;
+			for (int i = 0; i < count; i++) {
+				int stacks = Math.min(stacksPerChunk, numStacks - i * stacksPerChunk);
+				long size = BufferStackStore.bytesNeeded(stacks, maxHeight);
+				mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+				chunks[i] = new BufferStackStore(mappings[i], stacks, maxHeight);
+				position += size;
+			}
+		}
+
+		/**
+		 * Returns how many stacks each chunk holds.
+		 *
+		 * @return the number of stacks, or 0 if one stack will not fit
+		 */
+		private static int stacksPerChunk(int numStacks, int maxHeight) {
+			return (int) Math.min(numStacks, CHUNK_SIZE / BufferStackStore.bytesNeeded(1, maxHeight));
+		}
+
+		private BufferStackStore chunkOf(int stackNo) {
+			if (stackNo < 0 || stackNo >= numStacks)
+				throw new IndexOutOfBoundsException("No stack " + stackNo);
+			return chunks[stackNo / stacksPerChunk];
+		}
+
+		@Override
+		public int numStacks() {
+			return numStacks;
+		}
+
+		@Override
+		public int height(int stackNo) {
+			return chunkOf(stackNo).height(stackNo % stacksPerChunk);
+		}
+
+		@Override
+		public Class<?> typeOf(int stackNo) {
+			return chunkOf(stackNo).typeOf(stackNo % stacksPerChunk);
+		}
+
+		@Override
+		public long codeAt(int stackNo, int height) {
+			return chunkOf(stackNo).codeAt(stackNo % stacksPerChunk, height);
+		}
+
+		@Override
+		public int weightAt(int stackNo, int height) {
+			return chunkOf(stackNo).weightAt(stackNo % stacksPerChunk, height);
+		}
+
+		@Override
+		public int detailAt(int stackNo, int height) {
+			return chunkOf(stackNo).detailAt(stackNo % stacksPerChunk, height);
+		}
+
+		@Override
+		public FreightContainer containerAt(int stackNo, int height) {
+			return chunkOf(stackNo).containerAt(stackNo % stacksPerChunk, height);
+		}
+
+		@Override
+		public void checkStorable(FreightContainer container) {
+			chunks[0].checkStorable(container);
+		}
+
+		@Override
+		public void push(int stackNo, FreightContainer container) {
+			chunkOf(stackNo).push(stackNo % stacksPerChunk, container);
+			header.putInt(CURRENT_WEIGHT, header.getInt(CURRENT_WEIGHT) + container.getGrossWeight());
+		}
+
+		@Override
+		public void pop(int stackNo) {
+			int weight = weightAt(stackNo, height(stackNo) - 1);
+			chunkOf(stackNo).pop(stackNo % stacksPerChunk);
+			header.putInt(CURRENT_WEIGHT, header.getInt(CURRENT_WEIGHT) - weight);
+		}
+
+		private void force() {
+			for (MappedByteBuffer mapping : mappings)
+				mapping.force();
+			header.force();
+		}
+
+		private void release() {
+			for (BufferStackStore chunk : chunks)
+				chunk.release();
+		}
+	}
+
+	private MappedCargoManifest(MappedStackStore store, int maxHeight, int maxWeight) {
+		super(store, maxHeight, maxWeight);
+		this.store = store;
+	}
+
+	/**
+	 * Creates a new manifest file and an empty manifest in it.
+	 *
+	 * @param file the file to create, which must not exist
+	 * @param numStacks the number of stacks that can be accommodated on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * (in tonnes)
+	 * @return the manifest
+	 * @throws ManifestException if negative numbers are given for any of the
+	 * parameters, or a stack would be too high to fit in a chunk
+	 * @throws IOException if the file exists or cannot be written
+	 */
+	public static MappedCargoManifest create(Path file, Integer numStacks, Integer maxHeight,
+			Integer maxWeight) throws ManifestException, IOException {
+		checkParameters(numStacks, maxHeight, maxWeight);
+		if (MappedStackStore.stacksPerChunk(numStacks, maxHeight) == 0)
+			throw new ManifestException("Too many slots in a stack for a manifest file: "
+					+ BufferStackStore.bytesNeeded(1, maxHeight) + " bytes");
+
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			MappedStackStore store = new MappedStackStore(channel, numStacks, maxHeight);
+			store.header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, numStacks).putInt(12, maxHeight)
+					.putInt(16, maxWeight).putInt(CURRENT_WEIGHT, 0);
+			store.force();
+			return new MappedCargoManifest(store, maxHeight, maxWeight);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		} catch (RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens an existing manifest file.  Every container in it is read to
+	 * rebuild the manifest's index, so this takes time in proportion to
+	 * the number of containers on board.
+	 *
+	 * @param file the manifest file
+	 * @return the manifest, as it was after the last change made to it
+	 * @throws IOException if the file cannot be read, or is not a valid
+	 * manifest file
+	 */
+	public static MappedCargoManifest open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			long size = channel.size();
+			if (size < HEADER_SIZE)
+				throw new IOException(file + " is not a manifest file");
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+			int numStacks = header.getInt(8);
+			int maxHeight = header.getInt(12);
+			int maxWeight = header.getInt(16);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+					|| numStacks <= 0 || maxHeight <= 0 || maxWeight <= 0
+					|| MappedStackStore.stacksPerChunk(numStacks, maxHeight) == 0
+					|| size < HEADER_SIZE + BufferStackStore.bytesNeeded(numStacks, maxHeight))
+				throw new IOException(file + " is not a manifest file");
+
+			MappedStackStore store = new MappedStackStore(channel, numStacks, maxHeight);
+			MappedCargoManifest manifest;
+			try {
+				manifest = new MappedCargoManifest(store, maxHeight, maxWeight);
+			} catch (IllegalArgumentException e) {
+				throw new IOException(file + " is damaged: " + e.getMessage());
+			}
+			store.header.putInt(CURRENT_WEIGHT, manifest.getCurrentWeight());
+			return manifest;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		} catch (RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Forces every change made so far to disk.  Changes wait until it is
+	 * done, so that what reaches the disk is the manifest at one moment.
+	 */
+	public void flush() {
+		long stamp = writeLock();
+		try {
+			store.force();
+		} finally {
+			unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Forces every change to disk and closes the file.  The manifest can
+	 * no longer be used.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		long stamp = writeLock();
+		try {
+			store.force();
+			store.release();
+			store.channel.close();
+		} finally {
+			unlockWrite(stamp);
+		}
+	}
+}
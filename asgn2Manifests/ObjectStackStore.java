@@ -0,0 +1,79 @@
+package asgn2Manifests;
+
+import java.util.ArrayList;
+
+import asgn2Containers.FreightContainer;
+
+/**
+ * The usual stack store, which keeps each stack as a list of the
+ * container objects that were loaded.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class ObjectStackStore implements StackStore {
+
+	private final ArrayList<ArrayList<FreightContainer>> stacks;
+
+	/**
+	 * Constructs a store with the given number of empty stacks.
+	 *
+	 * @param numStacks the number of stacks
+	 */
+	ObjectStackStore(int numStacks) {
+		stacks = new ArrayList<ArrayList<FreightContainer>>(numStacks);
+		for (int i = 0; i < numStacks; i++)
+			stacks.add(new ArrayList<FreightContainer>());
+	}
+
+	@Override
+	public int numStacks() {
+		return stacks.size();
+	}
+
+	@Override
+	public int height(int stackNo) {
+		return stacks.get(stackNo).size();
+	}
+
+	@Override
+	public Class<?> typeOf(int stackNo) {
+		return stacks.get(stackNo).get(0).getClass();
+	}
+
+	@Override
+	public long codeAt(int stackNo, int height) {
+		return stacks.get(stackNo).get(height).getCode().asLong();
+	}
+
+	@Override
+	public int weightAt(int stackNo, int height) {
+		return stacks.get(stackNo).get(height).getGrossWeight();
+	}
+
+	@Override
+	public int detailAt(int stackNo, int height) {
+		return ContainerRecords.detailOf(stacks.get(stackNo).get(height));
+	}
+
+	@Override
+	public FreightContainer containerAt(int stackNo, int height) {
+		return stacks.get(stackNo).get(height);
+	}
+
+	@Override
+	public void checkStorable(FreightContainer container) {
+		// any container will do
+	}
+
+	@Override
+	public void push(int stackNo, FreightContainer container) {
+		stacks.get(stackNo).add(container);
+	}
+
+	@Override
+	public void pop(int stackNo) {
+		ArrayList<FreightContainer> stack = stacks.get(stackNo);
+		stack.remove(stack.size() - 1);
+	}
+}
@@ -0,0 +1,143 @@
+package asgn2Manifests;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.ManifestException;
+
+/**
+ * A cargo manifest whose containers are kept outside the Java heap, in
+ * memory taken from a <code>VoyageArena</code>.  A terminal can keep
+ * manifests for many vessels without the garbage collector having to
+ * trace any of their containers, and frees a whole voyage by closing
+ * its arena.  It applies the same rules, and has the same operations,
+ * as <code>CargoManifest</code>.
+ * <p>
+ * Each slot on deck takes a 16-byte record (see
+ * <code>BufferStackStore</code>), and only these records are outside the
+ * heap.  The code index, the per-stack and per-type totals and the sets
+ * used to find space stay on the heap, taking some tens of bytes per
+ * container and per stack.  They are primitive arrays, which the
+ * collector never has to trace, but they are only freed once the
+ * manifest itself is unreachable, not by closing the arena.
+ * <p>
+ * Since closing the arena frees the records at once, readers of an
+ * off-heap manifest always take its read lock rather than reading
+ * optimistically, and closing waits for them.  As with
+ * <code>CompactCargoManifest</code>,
+ * container objects are made afresh whenever they are asked for, and
+ * only general goods, refrigerated and dangerous goods containers can be
+ * loaded.
+ * <p>
+ * Once the arena is closed, every operation on the containers, from
+ * loading and unloading to finding and listing them, throws
+ * <code>IllegalStateException</code>.  Finding a container only reads
+ * the index on the heap, so it checks the arena explicitly.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class OffHeapCargoManifest extends CargoManifest {
+
+	private final BufferStackStore store;
+
+	/**
+	 * Constructs a new, empty cargo manifest in the given arena.  The
+	 * other parameters are as for <code>CargoManifest</code>.
+	 *
+	 * @param arena the arena for the voyage
+	 * @param numStacks the number of stacks that can be accommodated on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 * @param maxWeight the maximum weight of containers allowed on board
+	 * (in tonnes)
+	 * @throws ManifestException if negative numbers are given for any of the
+	 * parameters, or there are too many slots on deck to be held
+	 * @throws IllegalStateException if the arena has been closed
+	 */
+	public OffHeapCargoManifest(VoyageArena arena, Integer numStacks, Integer maxHeight, Integer maxWeight)
+	throws ManifestException {
+		this(arena, createStore(arena, numStacks, maxHeight, maxWeight), maxHeight, maxWeight);
+	}
+
+	private OffHeapCargoManifest(VoyageArena arena, BufferStackStore store, int maxHeight, int maxWeight) {
+		super(store, maxHeight, maxWeight);
+		this.store = store;
+		arena.attach(this);
+	}
+
+	@Override
+	boolean readsOptimistically() {
+		return false;
+	}
+
+	/**
+	 * Returns a spliterator over every container on board, stack by stack
+	 * and bottom first.  Unlike <code>CargoManifest</code>'s, it walks a
+	 * copy taken under the read lock, since the arena could otherwise be
+	 * closed under it part-way through.
+	 *
+	 * @return a spliterator over the containers on board
+	 * @throws IllegalStateException if the arena has been closed
+	 */
+	@Override
+	public Spliterator<FreightContainer> spliterator() {
+		final List<FreightContainer> containers = new ArrayList<FreightContainer>();
+		forEachContainer(new ContainerVisitor() {
+			@Override
+			public void visit(int stackNo, int height, FreightContainer container) {
+				containers.add(container);
+			}
+		});
+		return containers.spliterator();
+	}
+
+	/**
+	 * Stops the manifest using its store, once no reader or writer is
+	 * using it.
+	 *
+	 * @return the store's buffer, or null if it was already released
+	 */
+	ByteBuffer release() {
+		long stamp = writeLock();
+		try {
+			return store.release();
+		} finally {
+			unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * As for <code>CargoManifest</code>.
+	 *
+	 * @throws IllegalStateException if the arena has been closed
+	 */
+	@Override
+	public int stackOf(long packedCode) {
+		store.checkOpen();
+		return super.stackOf(packedCode);
+	}
+
+	/**
+	 * As for <code>CargoManifest</code>.
+	 *
+	 * @throws IllegalStateException if the arena has been closed
+	 */
+	@Override
+	public int heightOf(long packedCode) {
+		store.checkOpen();
+		return super.heightOf(packedCode);
+	}
+
+	private static BufferStackStore createStore(VoyageArena arena, Integer numStacks, Integer maxHeight,
+			Integer maxWeight) throws ManifestException {
+		checkParameters(numStacks, maxHeight, maxWeight);
+		try {
+			return arena.allocate(numStacks, maxHeight);
+		} catch (IllegalArgumentException e) {
+			throw new ManifestException(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package asgn2Manifests;
+
+import asgn2Containers.FreightContainer;
+
+/**
+ * Records where a container was put when it was loaded, as reported
+ * by <code>CargoManifest.loadContainers</code>.
+ * 
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public class Placement {
+	
+	private final FreightContainer container;
+	private final int stackNo;
+	private final int height;
+	
+	/**
+	 * Constructs a record of a container's placement.
+	 * 
+	 * @param container the container that was loaded
+	 * @param stackNo the stack it was put on
+	 * @param height its height in that stack, counting from zero
+	 */
+	public Placement(FreightContainer container, int stackNo, int height) {
+		this.container = container;
+		this.stackNo = stackNo;
+		this.height = height;
+	}
+	
+	/**
+	 * Returns the container that was loaded.
+	 * 
+	 * @return the container
+	 */
+	public FreightContainer getContainer() {
+		return container;
+	}
+	
+	/**
+	 * Returns the stack the container was put on.
+	 * 
+	 * @return the stack number
+	 */
+	public int getStackNo() {
+		return stackNo;
+	}
+	
+	/**
+	 * Returns the container's height in its stack.
+	 * 
+	 * @return the height, counting from zero
+	 */
+	public int getHeight() {
+		return height;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return container.getCode() + " -> stack " + stackNo + ", height " + height;
+	}
+}
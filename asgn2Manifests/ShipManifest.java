@@ -0,0 +1,108 @@
+package asgn2Manifests;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.ManifestException;
+
+/**
+ * The operations every cargo manifest offers, whether it is used by one
+ * thread at a time (<code>CargoManifest</code> and its subclasses) or
+ * shared by many cranes at once (<code>ConcurrentCargoManifest</code>).
+ * All of them apply the captain's rules as described for
+ * <code>CargoManifest</code>, so code written against this interface can
+ * be given either.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public interface ShipManifest {
+
+	/**
+	 * Loads a freight container onto the ship, provided that it can be
+	 * accommodated within the five rules set by the captain.
+	 *
+	 * @param newContainer the new freight container to be loaded
+	 * @throws ManifestException if adding this container would exceed
+	 * the ship's weight limit; if a container with the same code is
+	 * already on board; or if no suitable space can be found for this
+	 * container
+	 */
+	void loadContainer(FreightContainer newContainer) throws ManifestException;
+
+	/**
+	 * Loads a freight container onto the ship if it can be accommodated,
+	 * reporting a rejection through the returned outcome rather than an
+	 * exception.
+	 *
+	 * @param newContainer the new freight container to be loaded
+	 * @return <code>LOADED</code> if the container was loaded; otherwise
+	 * <code>OVERWEIGHT</code>, <code>DUPLICATE</code> or <code>NO_SPACE</code>
+	 */
+	ManifestOutcome tryLoadContainer(FreightContainer newContainer);
+
+	/**
+	 * Unloads a particular container from the ship, provided that
+	 * it is accessible (i.e., on top of a stack).
+	 *
+	 * @param containerId the code of the container to be unloaded
+	 * @throws ManifestException if the container is not accessible because
+	 * it's not on the top of a stack (including the case where it's not on board
+	 * the ship at all)
+	 */
+	void unloadContainer(ContainerCode containerId) throws ManifestException;
+
+	/**
+	 * Unloads a particular container from the ship if it is accessible,
+	 * reporting a rejection through the returned outcome rather than an
+	 * exception.
+	 *
+	 * @param containerId the code of the container to be unloaded
+	 * @return <code>UNLOADED</code> if the container was unloaded; otherwise
+	 * <code>NOT_FOUND</code> or <code>NOT_ACCESSIBLE</code>
+	 */
+	ManifestOutcome tryUnloadContainer(ContainerCode containerId);
+
+	/**
+	 * Returns which stack holds a particular container, if any.
+	 *
+	 * @param queryContainer the container code for the container of interest
+	 * @return the number of the stack with the container in it, or <code>null</code>
+	 * if the container is not on board
+	 */
+	Integer whichStack(ContainerCode queryContainer);
+
+	/**
+	 * Returns how high in its stack a particular container is, counting
+	 * from zero at the bottom.
+	 *
+	 * @param queryContainer the container code for the container of interest
+	 * @return the container's height in the stack, or <code>null</code>
+	 * if the container is not on board
+	 */
+	Integer howHigh(ContainerCode queryContainer);
+
+	/**
+	 * Returns the contents of a particular stack as an array,
+	 * starting with the bottommost container at position zero in the array.
+	 *
+	 * @param stackNo the number of the stack of interest
+	 * @return the stack's freight containers as an array
+	 * @throws ManifestException if there is no such stack on the ship
+	 */
+	FreightContainer[] toArray(Integer stackNo) throws ManifestException;
+
+	/**
+	 * Returns the number of stacks
+	 * @return the number of stacks on the ship
+	 */
+	int getNumStacks();
+
+	/**
+	 * Returns the manifest as text, one line per stack, with the given
+	 * container marked.
+	 *
+	 * @param toFind the container to mark, or <code>null</code>
+	 * @return the manifest as text
+	 */
+	String toString(ContainerCode toFind);
+}
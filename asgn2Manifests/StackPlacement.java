@@ -0,0 +1,75 @@
+package asgn2Manifests;
+
+import java.util.HashMap;
+
+/**
+ * The captain's rules for where a new container goes: on the stack
+ * closest to the bridge that is either empty or holds containers of the
+ * same type and is not full.  The stacks that qualify are kept in sets,
+ * one of empty stacks and one per type of stacks with room, so finding
+ * space takes a few word scans rather than a look at every stack.
+ * <p>
+ * The owner tells the placement about each stack that changes.  The
+ * structure is not thread-safe.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class StackPlacement {
+
+	private final int numStacks;
+	private final int maxHeight;
+	private final StackSet emptyStacks; // stacks with no containers in them
+	private final HashMap<Class<?>, StackSet> openStacks; // non-empty stacks with room, by container type
+
+	/**
+	 * Constructs the placement for a ship whose stacks are all empty.
+	 *
+	 * @param numStacks the number of stacks on deck
+	 * @param maxHeight the maximum allowable height of any stack
+	 */
+	StackPlacement(int numStacks, int maxHeight) {
+		this.numStacks = numStacks;
+		this.maxHeight = maxHeight;
+		this.emptyStacks = new StackSet(numStacks);
+		this.openStacks = new HashMap<Class<?>, StackSet>();
+		for (int i = 0; i < numStacks; i++)
+			emptyStacks.add(i);
+	}
+
+	/**
+	 * Finds the stack closest to the bridge that a container of the
+	 * given type may be put on.
+	 *
+	 * @param type the container's class
+	 * @return the stack number, or -1 if there is no suitable space
+	 */
+	int findStack(Class<?> type) {
+		int empty = emptyStacks.first();
+		StackSet open = openStacks.get(type);
+		int sameType = open == null ? -1 : open.first();
+		if (empty < 0)
+			return sameType;
+		if (sameType < 0)
+			return empty;
+		return Math.min(empty, sameType);
+	}
+
+	/**
+	 * Brings a stack's membership of the sets up to date after a
+	 * container of the given type has been put on or taken off it.
+	 *
+	 * @param stackNo the stack that has changed
+	 * @param type the class of the containers in the stack
+	 * @param height the number of containers now in the stack
+	 */
+	void update(int stackNo, Class<?> type, int height) {
+		StackSet open = openStacks.get(type);
+		if (open == null) {
+			open = new StackSet(numStacks);
+			openStacks.put(type, open);
+		}
+		emptyStacks.set(stackNo, height == 0);
+		open.set(stackNo, height > 0 && height < maxHeight);
+	}
+}
@@ -0,0 +1,109 @@
+package asgn2Manifests;
+
+/**
+ * A set of stack numbers that can report its lowest member quickly.
+ * It is a hierarchy of bit sets: each bit of one level records whether
+ * the corresponding 64-bit word of the level below has any bits set.
+ * Adding, removing and finding the lowest stack therefore take time
+ * proportional to log<sub>64</sub> of the number of stacks.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+class StackSet {
+
+	private final long[][] levels; // levels[0] holds one bit per stack
+
+	/**
+	 * Constructs an empty set of stack numbers in the range
+	 * 0 to <code>numStacks</code>-1.
+	 *
+	 * @param numStacks the number of stacks on the ship
+	 */
+	StackSet(int numStacks) {
+		int depth = 1;
+		for (int bits = numStacks; bits > 64; bits = words(bits))
+			depth++;
+		levels = new long[depth][];
+		int bits = numStacks;
+		for (int level = 0; level < depth; level++) {
+			levels[level] = new long[words(bits)];
+			bits = words(bits);
+		}
+	}
+
+	/**
+	 * Adds a stack to the set.
+	 *
+	 * @param stackNo the stack number
+	 */
+	void add(int stackNo) {
+		int i = stackNo;
+		for (int level = 0; level < levels.length; level++) {
+			int word = i >>> 6;
+			boolean wasEmpty = levels[level][word] == 0;
+			levels[level][word] |= 1L << i;
+			if (!wasEmpty)
+				return; // the levels above already know about this word
+			i = word;
+		}
+	}
+
+	/**
+	 * Removes a stack from the set.
+	 *
+	 * @param stackNo the stack number
+	 */
+	void remove(int stackNo) {
+		int i = stackNo;
+		for (int level = 0; level < levels.length; level++) {
+			int word = i >>> 6;
+			levels[level][word] &= ~(1L << i);
+			if (levels[level][word] != 0)
+				return; // the word is still non-empty
+			i = word;
+		}
+	}
+
+	/**
+	 * Adds or removes a stack, according to the given flag.
+	 *
+	 * @param stackNo the stack number
+	 * @param member true if the stack should be in the set
+	 */
+	void set(int stackNo, boolean member) {
+		if (member)
+			add(stackNo);
+		else
+			remove(stackNo);
+	}
+
+	/**
+	 * Returns true iff the stack is in the set.
+	 *
+	 * @param stackNo the stack number
+	 * @return true if the stack is a member
+	 */
+	boolean contains(int stackNo) {
+		return (levels[0][stackNo >>> 6] & (1L << stackNo)) != 0;
+	}
+
+	/**
+	 * Returns the lowest-numbered stack in the set.
+	 *
+	 * @return the lowest stack number, or -1 if the set is empty
+	 */
+	int first() {
+		int top = levels.length - 1;
+		if (levels[top][0] == 0)
+			return -1;
+		int i = 0;
+		for (int level = top; level >= 0; level--)
+			i = (i << 6) + Long.numberOfTrailingZeros(levels[level][i]);
+		return i;
+	}
+
+	private static int words(int bits) {
+		return Math.max(1, (bits + 63) >>> 6);
+	}
+}
@@ -0,0 +1,108 @@
+package asgn2Manifests;
+
+import asgn2Containers.FreightContainer;
+
+/**
+ * Where a <code>CargoManifest</code> keeps the contents of its stacks.
+ * The manifest applies the loading rules and keeps its own indexes; a
+ * store only records which containers are in which stack, in order, and
+ * does not check anything except whether it can hold a container.
+ * <p>
+ * Stores are not thread-safe.  The manifest changes a store only under
+ * its write lock, but may read it optimistically while it is being
+ * changed.  Reads must therefore terminate, and may return nonsense or
+ * throw a <code>RuntimeException</code>, when racing a change; the
+ * manifest discards any such result.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+interface StackStore {
+
+	/**
+	 * Returns the number of stacks.
+	 *
+	 * @return the number of stacks
+	 */
+	int numStacks();
+
+	/**
+	 * Returns the number of containers in a stack.
+	 *
+	 * @param stackNo the stack number
+	 * @return the stack's height
+	 */
+	int height(int stackNo);
+
+	/**
+	 * Returns the class of the containers in a stack, which must not be
+	 * empty.
+	 *
+	 * @param stackNo the stack number
+	 * @return the class of every container in the stack
+	 */
+	Class<?> typeOf(int stackNo);
+
+	/**
+	 * Returns the packed code of a container.
+	 *
+	 * @param stackNo the stack number
+	 * @param height the container's height in the stack
+	 * @return its packed code
+	 */
+	long codeAt(int stackNo, int height);
+
+	/**
+	 * Returns the gross weight of a container.
+	 *
+	 * @param stackNo the stack number
+	 * @param height the container's height in the stack
+	 * @return its gross weight (in tonnes)
+	 */
+	int weightAt(int stackNo, int height);
+
+	/**
+	 * Returns the detail of a container, as for
+	 * <code>ContainerRecords.detailOf</code>.
+	 *
+	 * @param stackNo the stack number
+	 * @param height the container's height in the stack
+	 * @return its dangerous goods category or temperature, or zero
+	 */
+	int detailAt(int stackNo, int height);
+
+	/**
+	 * Returns a container.  Stores that do not hold container objects
+	 * make a new one each time.
+	 *
+	 * @param stackNo the stack number
+	 * @param height the container's height in the stack
+	 * @return the container
+	 */
+	FreightContainer containerAt(int stackNo, int height);
+
+	/**
+	 * Checks that a container can be held by this store, before anything
+	 * is changed.
+	 *
+	 * @param container a container about to be loaded
+	 * @throws IllegalArgumentException if the store cannot represent it
+	 */
+	void checkStorable(FreightContainer container);
+
+	/**
+	 * Puts a container on top of a stack, which must not be full.
+	 *
+	 * @param stackNo the stack number
+	 * @param container the container, which has passed
+	 * <code>checkStorable</code>
+	 */
+	void push(int stackNo, FreightContainer container);
+
+	/**
+	 * Takes the top container off a stack, which must not be empty.
+	 *
+	 * @param stackNo the stack number
+	 */
+	void pop(int stackNo);
+}
@@ -0,0 +1,140 @@
+package asgn2Manifests;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The memory outside the Java heap used by the off-heap manifests for
+ * one voyage.  Closing the arena releases all of it at once, and any
+ * manifest using it can no longer be used.
+ * <p>
+ * The memory is held in direct byte buffers.  Closing the arena takes
+ * each manifest's write lock in turn, stops it using its buffer and
+ * frees the buffer's memory there and then, rather than waiting for the
+ * garbage collector to find the buffer unreachable.  The collector never
+ * scans the memory itself.  On a Java runtime that offers no way to
+ * free a direct buffer early, the memory is left to the collector.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ * @see OffHeapCargoManifest
+ */
+public final class VoyageArena implements Closeable {
+
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe;
+		Method invokeCleaner;
+		try {
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+			invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (Exception e) { // not offered here, so leave it to the collector
+			unsafe = null;
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private final List<BufferStackStore> stores = new ArrayList<BufferStackStore>();
+	private final List<OffHeapCargoManifest> manifests = new ArrayList<OffHeapCargoManifest>();
+	private long allocatedBytes;
+	private boolean closed;
+
+	/**
+	 * Allocates the memory for a store with the given dimensions.
+	 *
+	 * @param numStacks the number of stacks
+	 * @param maxHeight the maximum height of any stack
+	 * @return the store, which is empty
+	 * @throws IllegalArgumentException if the store would need more than
+	 * 2 GB
+	 * @throws IllegalStateException if the arena has been closed
+	 */
+	synchronized BufferStackStore allocate(int numStacks, int maxHeight) {
+		if (closed)
+			throw new IllegalStateException("The voyage arena has been closed");
+		long bytes = BufferStackStore.bytesNeeded(numStacks, maxHeight);
+		if (bytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many slots for one store: " + bytes + " bytes");
+		ByteBuffer buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+		BufferStackStore store = new BufferStackStore(buffer, numStacks, maxHeight);
+		stores.add(store);
+		allocatedBytes += bytes;
+		return store;
+	}
+
+	/**
+	 * Records the manifest built on a store from this arena, so that
+	 * closing the arena can lock it before freeing the store.
+	 *
+	 * @param manifest the manifest
+	 * @throws IllegalStateException if the arena has been closed
+	 */
+	synchronized void attach(OffHeapCargoManifest manifest) {
+		if (closed)
+			throw new IllegalStateException("The voyage arena has been closed");
+		manifests.add(manifest);
+	}
+
+	/**
+	 * Returns the memory allocated so far from this arena.
+	 *
+	 * @return the number of bytes allocated, or zero once closed
+	 */
+	public synchronized long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Returns true until the arena is closed.
+	 *
+	 * @return true if the arena is open
+	 */
+	public synchronized boolean isOpen() {
+		return !closed;
+	}
+
+	/**
+	 * Releases all of the arena's memory.  Closing an arena that is
+	 * already closed has no effect.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		for (OffHeapCargoManifest manifest : manifests)
+			free(manifest.release());
+		// a store whose manifest is still being built may be in use
+		// without its lock, so it is only released
+		for (BufferStackStore store : stores)
+			store.release();
+		manifests.clear();
+		stores.clear();
+		allocatedBytes = 0;
+	}
+
+	/**
+	 * Frees a direct buffer's memory now, if the runtime allows it.  The
+	 * buffer must not be used again.
+	 *
+	 * @param buffer the buffer, or null
+	 */
+	private static void free(ByteBuffer buffer) {
+		if (buffer == null || INVOKE_CLEANER == null)
+			return;
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch (Exception e) { // leave it to the collector
+		}
+	}
+}
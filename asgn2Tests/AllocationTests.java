@@ -0,0 +1,174 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Manifests.CargoManifest;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the manifest's hot paths stay within their allocation
+ * budgets.  Each operation is warmed up first, so that class loading
+ * and compilation are not counted, and then run many times while the
+ * bytes allocated by this thread are measured.  A test fails if the
+ * average per call exceeds the operation's declared budget.
+ */
+public class AllocationTests {
+	
+	/** Bytes each operation may allocate per call, on average. */
+	private static final double WHICH_STACK_BUDGET = 0;
+	private static final double HOW_HIGH_BUDGET = 0;
+	private static final double LOAD_BUDGET = 0;
+	private static final double UNLOAD_BUDGET = 0;
+	private static final double REJECTED_LOAD_BUDGET = 0;
+	/**
+	 * Allowance for one-off allocations during measurement, such as by
+	 * the compiler's runtime support.  Any allocation made on every call
+	 * is at least 16 bytes, so it cannot hide within this.
+	 */
+	private static final double TOLERANCE = 1;
+	
+	private static final int WARMUP_ROUNDS = 2000;
+	private static final int MEASURED_ROUNDS = 500;
+	private static final int NUM_SPARES = 64;
+	private static final int NUM_STACKS = 100;
+	private static final int MAX_HEIGHT = 4;
+	
+	private com.sun.management.ThreadMXBean threads;
+	private CargoManifest manifest;
+	private ContainerCode[] onBoard;
+	private FreightContainer[] spares; // loaded and unloaded again by the tests
+	private long sink; // keeps results alive so the calls are not optimised away
+	
+	/**
+	 * An operation whose allocation is measured.
+	 */
+	private interface Operation {
+		void run(int i) throws Exception;
+	}
+	
+	@Before
+	public void setUp() throws Exception {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		
+		// half fill the ship with a mix of containers
+		manifest = new CargoManifest(NUM_STACKS, MAX_HEIGHT, 1000000);
+		onBoard = new ContainerCode[NUM_STACKS * MAX_HEIGHT / 2];
+		for (int i = 0; i < onBoard.length; i++) {
+			onBoard[i] = serialCode(i);
+			if (i % 10 == 0)
+				manifest.loadContainer(new DangerousGoodsContainer(onBoard[i], 4 + i % 27, 1 + i % 9));
+			else if (i % 4 == 0)
+				manifest.loadContainer(new RefrigeratedContainer(onBoard[i], 4 + i % 27, -20));
+			else
+				manifest.loadContainer(new GeneralGoodsContainer(onBoard[i], 4 + i % 27));
+		}
+		spares = new FreightContainer[NUM_SPARES];
+		for (int i = 0; i < NUM_SPARES; i++)
+			spares[i] = new GeneralGoodsContainer(serialCode(onBoard.length + i), 10);
+	}
+	
+	@Test
+	public void testWhichStack() throws Exception {
+		assertWithinBudget("whichStack", WHICH_STACK_BUDGET, new Operation() {
+			@Override
+			public void run(int i) {
+				sink += manifest.whichStack(onBoard[i % onBoard.length]);
+			}
+		});
+	}
+	
+	@Test
+	public void testHowHigh() throws Exception {
+		assertWithinBudget("howHigh", HOW_HIGH_BUDGET, new Operation() {
+			@Override
+			public void run(int i) {
+				sink += manifest.howHigh(onBoard[i % onBoard.length]);
+			}
+		});
+	}
+	
+	@Test
+	public void testRejectedLoad() throws Exception {
+		manifest.loadContainer(spares[0]);
+		assertWithinBudget("tryLoadContainer (duplicate)", REJECTED_LOAD_BUDGET, new Operation() {
+			@Override
+			public void run(int i) {
+				sink += manifest.tryLoadContainer(spares[0]).ordinal();
+			}
+		});
+	}
+	
+	@Test
+	public void testLoadAndUnload() throws Exception {
+		long overhead = measuringOverhead();
+		long loadBytes = 0;
+		long unloadBytes = 0;
+		for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+			long start = allocatedBytes();
+			for (int i = 0; i < NUM_SPARES; i++)
+				manifest.loadContainer(spares[i]);
+			long loaded = allocatedBytes();
+			for (int i = NUM_SPARES - 1; i >= 0; i--)
+				manifest.unloadContainer(spares[i].getCode());
+			long unloaded = allocatedBytes();
+			if (round >= WARMUP_ROUNDS) {
+				loadBytes += loaded - start - overhead;
+				unloadBytes += unloaded - loaded - overhead;
+			}
+		}
+		assertBudget("loadContainer", LOAD_BUDGET, (double) loadBytes / (MEASURED_ROUNDS * NUM_SPARES));
+		assertBudget("unloadContainer", UNLOAD_BUDGET, (double) unloadBytes / (MEASURED_ROUNDS * NUM_SPARES));
+	}
+	
+	/**
+	 * Warms an operation up, then fails if it allocates more than its
+	 * budget per call on average.
+	 */
+	private void assertWithinBudget(String name, double budget, Operation operation) throws Exception {
+		int calls = MEASURED_ROUNDS * NUM_SPARES;
+		for (int i = 0; i < WARMUP_ROUNDS * NUM_SPARES; i++)
+			operation.run(i);
+		long overhead = measuringOverhead();
+		long start = allocatedBytes();
+		for (int i = 0; i < calls; i++)
+			operation.run(i);
+		long bytes = allocatedBytes() - start - overhead;
+		assertBudget(name, budget, (double) bytes / calls);
+	}
+	
+	private static void assertBudget(String name, double budget, double bytesPerCall) {
+		assertTrue(name + " allocated " + bytesPerCall + " bytes per call, over its budget of " + budget,
+				bytesPerCall <= budget + TOLERANCE);
+	}
+	
+	/**
+	 * Returns the bytes allocated by reading the allocation counter itself.
+	 */
+	private long measuringOverhead() {
+		long first = allocatedBytes();
+		long second = allocatedBytes();
+		return second - first;
+	}
+	
+	private long allocatedBytes() {
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
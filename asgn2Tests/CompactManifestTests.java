@@ -0,0 +1,100 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Exceptions.ManifestException;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.CompactCargoManifest;
+import asgn2Manifests.ManifestOutcome;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class CompactManifestTests {
+	
+	@Test
+	public void testSameAsCargoManifest() throws Exception {
+		CargoManifest expected = new CargoManifest(20, 4, 1500);
+		CargoManifest compact = new CompactCargoManifest(20, 4, 1500);
+		List<ContainerCode> codes = new ArrayList<ContainerCode>();
+		for (int i = 0; i < 120; i++)
+			codes.add(serialCode(i));
+		
+		Random random = new Random(16);
+		for (int i = 0; i < 20000; i++) {
+			ContainerCode code = codes.get(random.nextInt(codes.size()));
+			int weight = 4 + random.nextInt(27);
+			FreightContainer container;
+			switch (random.nextInt(4)) {
+			case 0:
+				container = new GeneralGoodsContainer(code, weight);
+				break;
+			case 1:
+				container = new RefrigeratedContainer(code, weight, random.nextInt(60) - 30);
+				break;
+			case 2:
+				container = new DangerousGoodsContainer(code, weight, 1 + random.nextInt(9));
+				break;
+			default:
+				assertEquals(expected.tryUnloadContainer(code), compact.tryUnloadContainer(code));
+				continue;
+			}
+			assertEquals(expected.tryLoadContainer(container), compact.tryLoadContainer(container));
+			assertEquals(expected.whichStack(code), compact.whichStack(code));
+			assertEquals(expected.howHigh(code), compact.howHigh(code));
+		}
+		assertEquals(expected.toString(codes.get(0)), compact.toString(codes.get(0)));
+	}
+	
+	@Test
+	public void testContainersMadeOnDemand() throws Exception {
+		CargoManifest compact = new CompactCargoManifest(3, 2, 100);
+		compact.loadContainer(new RefrigeratedContainer(serialCode(1), 20, -18));
+		compact.loadContainer(new RefrigeratedContainer(serialCode(2), 21, null));
+		compact.loadContainer(new DangerousGoodsContainer(serialCode(3), 22, 6));
+		
+		FreightContainer[] reefers = compact.toArray(0);
+		assertEquals(2, reefers.length);
+		assertEquals(serialCode(1), reefers[0].getCode());
+		assertEquals(20, reefers[0].getGrossWeight().intValue());
+		assertEquals(-18, ((RefrigeratedContainer) reefers[0]).getTemperature().intValue());
+		assertNull(((RefrigeratedContainer) reefers[1]).getTemperature());
+		DangerousGoodsContainer dg = (DangerousGoodsContainer) compact.toArray(1)[0];
+		assertEquals(6, dg.getCategory().intValue());
+		
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, compact.tryUnloadContainer(serialCode(1)));
+		compact.unloadContainer(serialCode(2));
+		compact.unloadContainer(serialCode(3));
+		assertEquals(0, compact.toArray(1).length);
+	}
+	
+	@Test
+	public void testTemperatureOutOfRange() throws Exception {
+		CargoManifest compact = new CompactCargoManifest(3, 2, 100);
+		try {
+			compact.tryLoadContainer(new RefrigeratedContainer(serialCode(1), 20, 40000));
+			fail("Should throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		assertTrue(compact.whichStack(serialCode(1)) == null);
+		assertEquals("||  ||\n||  ||\n||  ||\n", compact.toString());
+	}
+	
+	@Test(expected = ManifestException.class)
+	public void testNegativeParameters() throws Exception {
+		new CompactCargoManifest(3, -2, 100);
+	}
+}
@@ -0,0 +1,196 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Exceptions.InvalidContainerException;
+import asgn2Exceptions.ManifestException;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ConcurrentCargoManifest;
+import asgn2Manifests.ManifestOutcome;
+import asgn2Manifests.ShipManifest;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class ConcurrentManifestTests {
+	private static final String[] CODES = {
+		"INKU2633836",
+		"KOCU8090115",
+		"MSCU6639871",
+		"CSQU3054389",
+		"QUTU7200318",
+		"IBMU4882351"
+		};
+	private static final int NUM_THREADS = 8;
+	
+	private FreightContainer[] containers;
+	
+	@Before
+	public void setUp() throws Exception {
+		containers = new FreightContainer[CODES.length];
+		containers[0] = new GeneralGoodsContainer(new ContainerCode(CODES[0]), 10);
+		containers[1] = new GeneralGoodsContainer(new ContainerCode(CODES[1]), 10);
+		containers[2] = new DangerousGoodsContainer(new ContainerCode(CODES[2]), 20, 1);
+		containers[3] = new RefrigeratedContainer(new ContainerCode(CODES[3]), 30, 25);
+		containers[4] = new DangerousGoodsContainer(new ContainerCode(CODES[4]), 20, 2);
+		containers[5] = new RefrigeratedContainer(new ContainerCode(CODES[5]), 30, 35);
+	}
+	
+	@Test
+	public void testSameRulesAsCargoManifest() throws ManifestException {
+		ConcurrentCargoManifest concurrent = new ConcurrentCargoManifest(3, 2, 120);
+		CargoManifest plain = new CargoManifest(3, 2, 120);
+		for (FreightContainer container : containers) {
+			assertEquals(plain.tryLoadContainer(container), concurrent.tryLoadContainer(container));
+			assertEquals(plain.tryLoadContainer(container), concurrent.tryLoadContainer(container));
+		}
+		assertEquals(plain.toString(), concurrent.toString());
+		assertEquals(plain.toString(containers[4].getCode()), concurrent.toString(containers[4].getCode()));
+		for (FreightContainer container : containers) {
+			assertEquals(plain.whichStack(container.getCode()), concurrent.whichStack(container.getCode()));
+			assertEquals(plain.howHigh(container.getCode()), concurrent.howHigh(container.getCode()));
+		}
+		
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, concurrent.tryUnloadContainer(containers[2].getCode()));
+		assertEquals(ManifestOutcome.UNLOADED, concurrent.tryUnloadContainer(containers[4].getCode()));
+		assertEquals(ManifestOutcome.NOT_FOUND, concurrent.tryUnloadContainer(containers[4].getCode()));
+		assertTrue(concurrent.whichStack(containers[4].getCode()) == null);
+		assertEquals(100, concurrent.getCurrentWeight());
+		
+		try {
+			concurrent.toArray(3);
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+		try {
+			new ConcurrentCargoManifest(0, 2, 120);
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+	}
+	
+	@Test
+	public void testMatchesCargoManifestThroughout() throws Exception {
+		ShipManifest[] manifests = { new CargoManifest(6, 3, 300), new ConcurrentCargoManifest(6, 3, 300) };
+		Random random = new Random(42);
+		for (int step = 0; step < 2000; step++) {
+			int serial = random.nextInt(40);
+			FreightContainer container;
+			switch (serial % 3) {
+			case 0:
+				container = new GeneralGoodsContainer(serialCode(serial), 5 + serial % 20);
+				break;
+			case 1:
+				container = new RefrigeratedContainer(serialCode(serial), 5 + serial % 20, -18);
+				break;
+			default:
+				container = new DangerousGoodsContainer(serialCode(serial), 5 + serial % 20, 1 + serial % 9);
+			}
+			boolean load = random.nextBoolean();
+			ManifestOutcome expected = apply(manifests[0], container, load);
+			assertEquals(expected, apply(manifests[1], container, load));
+			assertEquals(manifests[0].toString(null), manifests[1].toString(null));
+		}
+	}
+	
+	private static ManifestOutcome apply(ShipManifest manifest, FreightContainer container, boolean load) {
+		return load ? manifest.tryLoadContainer(container) : manifest.tryUnloadContainer(container.getCode());
+	}
+	
+	@Test
+	public void testConcurrentLoadsAndUnloads() throws Exception {
+		final int perThread = 200;
+		final ConcurrentCargoManifest cm = new ConcurrentCargoManifest(NUM_THREADS * perThread / 4, 4, 1000000);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger failures = new AtomicInteger();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < NUM_THREADS; t++) {
+			final int first = t * perThread;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = first; i < first + perThread; i++) {
+							FreightContainer container = (i % 2 == 0)
+									? new GeneralGoodsContainer(serialCode(i), 5)
+									: new RefrigeratedContainer(serialCode(i), 7, -18);
+							if (cm.tryLoadContainer(container) != ManifestOutcome.LOADED)
+								failures.incrementAndGet();
+						}
+					} catch (Exception e) {
+						failures.incrementAndGet();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals(0, failures.get());
+		
+		int total = NUM_THREADS * perThread;
+		assertEquals(total / 2 * 5 + total / 2 * 7, cm.getCurrentWeight());
+		int count = 0;
+		for (int s = 0; s < cm.getNumStacks(); s++) {
+			FreightContainer[] stack = cm.toArray(s);
+			for (int h = 0; h < stack.length; h++) {
+				assertEquals(stack[0].getClass(), stack[h].getClass());
+				assertTrue(cm.whichStack(stack[h].getCode()).intValue() == s);
+				assertTrue(cm.howHigh(stack[h].getCode()).intValue() == h);
+				count++;
+			}
+		}
+		assertEquals(total, count);
+	}
+	
+	@Test
+	public void testOnlyOneLoadOfTheSameCodeWins() throws Exception {
+		for (int round = 0; round < 50; round++) {
+			final ConcurrentCargoManifest cm = new ConcurrentCargoManifest(NUM_THREADS, 1, 1000);
+			final CountDownLatch start = new CountDownLatch(1);
+			final AtomicInteger loaded = new AtomicInteger();
+			final FreightContainer container = containers[0];
+			List<Thread> threads = new ArrayList<Thread>();
+			for (int t = 0; t < NUM_THREADS; t++) {
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+						} catch (InterruptedException e) {
+							return;
+						}
+						if (cm.tryLoadContainer(container) == ManifestOutcome.LOADED)
+							loaded.incrementAndGet();
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			start.countDown();
+			for (Thread thread : threads)
+				thread.join();
+			assertEquals(1, loaded.get());
+			assertEquals(10, cm.getCurrentWeight());
+		}
+	}
+}
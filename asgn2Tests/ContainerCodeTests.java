@@ -0,0 +1,189 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+/* Some valid container codes used in the tests below:
+ * INKU2633836
+ * KOCU8090115
+ * MSCU6639871
+ * CSQU3054389
+ * QUTU7200318
+ * IBMU4882351
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import asgn2Codes.CodeValidity;
+import asgn2Codes.ContainerCode;
+import asgn2Codes.ContainerCodeParser;
+import asgn2Exceptions.InvalidCodeException;
+import static org.junit.Assert.*;
+
+public class ContainerCodeTests {
+	private static final String[] CODES = {
+		"INKU2633836",
+		"KOCU8090115",
+		"MSCU6639871",
+		"CSQU3054389",
+		"QUTU7200318",
+		"IBMU4882351",
+		"AAAU0000000",
+		"ZZZU9999999"
+		};
+
+	@Test
+	public void testEqualsAndHashCode() throws InvalidCodeException {
+		for (String code : CODES) {
+			ContainerCode a = new ContainerCode(code);
+			ContainerCode b = new ContainerCode(code);
+			assertEquals(a, b);
+			assertEquals(a.hashCode(), b.hashCode());
+			assertEquals(code, a.toString());
+		}
+		assertFalse(new ContainerCode(CODES[0]).equals(new ContainerCode(CODES[1])));
+		assertFalse(new ContainerCode(CODES[0]).equals(CODES[0]));
+		assertFalse(new ContainerCode(CODES[0]).equals(null));
+	}
+
+	@Test
+	public void testPackRoundTrip() throws InvalidCodeException {
+		for (String code : CODES) {
+			long packed = ContainerCode.pack(code);
+			assertTrue(packed >= 0);
+			assertTrue(ContainerCode.isPacked(packed));
+			assertEquals(code, ContainerCode.unpack(packed));
+			assertEquals(packed, new ContainerCode(code).asLong());
+			assertEquals(new ContainerCode(code), ContainerCode.valueOf(packed));
+		}
+	}
+
+	@Test
+	public void testAppendTo() throws Exception {
+		StringBuilder out = new StringBuilder();
+		for (String code : CODES)
+			new ContainerCode(code).appendTo(out.append(' '));
+		StringBuilder expected = new StringBuilder();
+		for (String code : CODES)
+			expected.append(' ').append(code);
+		assertEquals(expected.toString(), out.toString());
+	}
+
+	@Test
+	public void testPackPreservesOrder() throws InvalidCodeException {
+		for (int i = 0; i < CODES.length; i++)
+			for (int j = 0; j < CODES.length; j++)
+				assertEquals(Integer.signum(CODES[i].compareTo(CODES[j])),
+						Long.signum(ContainerCode.pack(CODES[i]) - ContainerCode.pack(CODES[j])));
+	}
+
+	@Test
+	public void testInvalidPackedValues() throws InvalidCodeException {
+		long packed = ContainerCode.pack("MSCU6639871");
+		assertFalse(ContainerCode.isPacked(-1L));
+		assertFalse(ContainerCode.isPacked(Long.MAX_VALUE));
+		assertFalse(ContainerCode.isPacked(packed + 1)); // wrong check digit
+		try {
+			ContainerCode.valueOf(packed + 1);
+			fail("Should throw InvalidCodeException");
+		} catch (InvalidCodeException e) {
+		}
+		try {
+			ContainerCode.unpack(-1L);
+			fail("Should throw InvalidCodeException");
+		} catch (InvalidCodeException e) {
+		}
+	}
+
+	@Test
+	public void testInvalidCodes() {
+		String[] invalid = {
+			null,
+			"MSCU663987",    // too short
+			"MSCU66398711",  // too long
+			"MsCU6639871",   // lower-case owner code
+			"\u00c4SCU6639871", // non-ASCII owner code
+			"MSCJ6639871",   // wrong category
+			"MSCU66398X1",   // bad serial number
+			"MSCU6639872"    // wrong check digit
+		};
+		for (String code : invalid) {
+			try {
+				new ContainerCode(code);
+				fail("Should throw InvalidCodeException for " + code);
+			} catch (InvalidCodeException e) {
+			}
+		}
+	}
+
+	@Test
+	public void testParseValidCodes() throws InvalidCodeException {
+		for (String code : CODES) {
+			long packed = ContainerCode.pack(code);
+			byte[] bytes = ("xx" + code + "yy").getBytes(StandardCharsets.US_ASCII);
+			
+			assertEquals(packed, ContainerCodeParser.parse(code));
+			assertEquals(packed, ContainerCodeParser.parse(new StringBuilder(code)));
+			assertEquals(packed, ContainerCodeParser.parse(bytes, 2, 11));
+			
+			ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, 11);
+			assertEquals(packed, ContainerCodeParser.parse(buffer));
+			assertEquals(2, buffer.position()); // position unchanged
+			
+			assertEquals(CodeValidity.VALID, ContainerCodeParser.validityOf(packed));
+			assertEquals(new ContainerCode(code), ContainerCodeParser.toCode(packed));
+		}
+	}
+
+	@Test
+	public void testParseInvalidCodes() {
+		assertInvalid(null, CodeValidity.WRONG_LENGTH);
+		assertInvalid("MSCU663987", CodeValidity.WRONG_LENGTH);
+		assertInvalid("MSCU66398711", CodeValidity.WRONG_LENGTH);
+		assertInvalid("MsCU6639871", CodeValidity.BAD_OWNER_CODE);
+		assertInvalid("MSCJ6639871", CodeValidity.BAD_CATEGORY);
+		assertInvalid("MSCU66398X1", CodeValidity.BAD_SERIAL_NUMBER);
+		assertInvalid("MSCU6639872", CodeValidity.BAD_CHECK_DIGIT);
+		assertInvalid("MSCU663987X", CodeValidity.BAD_CHECK_DIGIT);
+		// the first rule broken is reported
+		assertInvalid("M1CJ66398X2", CodeValidity.BAD_OWNER_CODE);
+		
+		assertTrue(ContainerCodeParser.toCode(ContainerCodeParser.parse("MSCU6639872")) == null);
+		// values parse never returns
+		assertTrue(ContainerCodeParser.toCode(12345) == null);
+		assertTrue(ContainerCodeParser.toCode(Long.MAX_VALUE) == null);
+		try {
+			ContainerCodeParser.validityOf(-99);
+			fail("Should throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		
+		try {
+			new ContainerCode("MSCU66398X1");
+			fail("Should throw InvalidCodeException");
+		} catch (InvalidCodeException e) {
+			assertEquals(CodeValidity.BAD_SERIAL_NUMBER.getMessage(), e.getMessage());
+		}
+		
+		try {
+			ContainerCodeParser.parse(new byte[5], 2, 11);
+			fail("Should throw IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+	
+	private static void assertInvalid(String code, CodeValidity expected) {
+		long result = ContainerCodeParser.parse(code);
+		assertTrue(result < 0);
+		assertEquals(expected, ContainerCodeParser.validityOf(result));
+		if (code != null) {
+			byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+			assertEquals(result, ContainerCodeParser.parse(bytes, 0, bytes.length));
+			assertEquals(result, ContainerCodeParser.parse(ByteBuffer.wrap(bytes)));
+		}
+	}
+}
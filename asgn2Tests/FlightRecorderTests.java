@@ -0,0 +1,117 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2GUI.CargoTextArea;
+import asgn2Manifests.CargoManifest;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class FlightRecorderTests {
+	
+	@Test
+	public void testManifestEvents() throws Exception {
+		CargoManifest manifest = new CargoManifest(2, 2, 50);
+		Path file = Files.createTempFile("manifest", ".jfr");
+		try {
+			Recording recording = new Recording();
+			recording.enable("asgn2.ManifestLoad").withThreshold(Duration.ZERO);
+			recording.enable("asgn2.ManifestUnload").withThreshold(Duration.ZERO);
+			recording.enable("asgn2.ManifestFind").withThreshold(Duration.ZERO);
+			recording.start();
+			manifest.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+			manifest.loadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+			manifest.tryUnloadContainer(serialCode(1));
+			manifest.howHigh(serialCode(2));
+			recording.stop();
+			recording.dump(file);
+			recording.close();
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			int loads = 0;
+			int unloads = 0;
+			int finds = 0;
+			for (RecordedEvent event : events) {
+				String name = event.getEventType().getName();
+				if (name.equals("asgn2.ManifestLoad")) {
+					loads++;
+					assertEquals("LOADED", event.getString("outcome"));
+					assertEquals(0, event.getInt("stack"));
+				} else if (name.equals("asgn2.ManifestUnload")) {
+					unloads++;
+					assertEquals(serialCode(1).toString(), event.getString("containerCode"));
+					assertEquals("NOT_ACCESSIBLE", event.getString("outcome"));
+					assertEquals(0, event.getInt("height"));
+				} else if (name.equals("asgn2.ManifestFind")) {
+					finds++;
+					assertEquals(1, event.getInt("height"));
+					assertTrue(event.getBoolean("found"));
+				}
+			}
+			assertEquals(2, loads);
+			assertEquals(1, unloads);
+			assertEquals(1, finds);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testRenderEvents() throws Exception {
+		CargoManifest manifest = new CargoManifest(3, 2, 100);
+		manifest.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		manifest.loadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+		CargoTextArea area = new CargoTextArea(manifest);
+		Path file = Files.createTempFile("render", ".jfr");
+		try {
+			Recording recording = new Recording();
+			recording.enable("asgn2.CargoRender").withThreshold(Duration.ZERO);
+			recording.start();
+			area.updateDisplay(); // every line
+			manifest.loadContainer(new RefrigeratedContainer(serialCode(3), 10, -5));
+			area.updateDisplay(); // only the line that changed
+			recording.stop();
+			recording.dump(file);
+			recording.close();
+			
+			List<RecordedEvent> renders = new ArrayList<RecordedEvent>();
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				if (event.getEventType().getName().equals("asgn2.CargoRender"))
+					renders.add(event);
+			}
+			Collections.sort(renders, new Comparator<RecordedEvent>() {
+				@Override
+				public int compare(RecordedEvent a, RecordedEvent b) {
+					return a.getStartTime().compareTo(b.getStartTime());
+				}
+			});
+			assertEquals(2, renders.size());
+			assertEquals(area.getName(), renders.get(0).getString("component"));
+			assertEquals(3, renders.get(0).getInt("stacks"));
+			assertEquals(2, renders.get(0).getInt("containers"));
+			assertEquals(1, renders.get(1).getInt("stacks"));
+			assertEquals(1, renders.get(1).getInt("containers"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
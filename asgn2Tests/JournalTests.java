@@ -0,0 +1,191 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Manifests.JournaledCargoManifest;
+import asgn2Manifests.ManifestJournal;
+import asgn2Manifests.ManifestOutcome;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class JournalTests {
+	private Path dir;
+	private Path file;
+	
+	@Before
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("journal");
+		file = dir.resolve("manifest.journal");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(dir);
+	}
+	
+	@Test
+	public void testRecover() throws Exception {
+		JournaledCargoManifest cm = JournaledCargoManifest.create(file, 3, 2, 200);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		cm.loadContainer(new RefrigeratedContainer(serialCode(2), 20, -5));
+		cm.loadContainer(new DangerousGoodsContainer(serialCode(3), 30, 7));
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(4), 10));
+		cm.unloadContainer(serialCode(4));
+		cm.loadContainer(new RefrigeratedContainer(serialCode(5), 20, 3));
+		assertEquals(ManifestOutcome.DUPLICATE, cm.tryLoadContainer(new GeneralGoodsContainer(serialCode(1), 10)));
+		String before = cm.toString();
+		cm.close();
+		
+		JournaledCargoManifest recovered = JournaledCargoManifest.recover(file);
+		assertEquals(before, recovered.toString());
+		assertEquals(3, recovered.getNumStacks());
+		FreightContainer[] reefers = recovered.toArray(1);
+		assertEquals(2, reefers.length);
+		assertEquals(-5, ((RefrigeratedContainer) reefers[0]).getTemperature().intValue());
+		assertEquals(7, ((DangerousGoodsContainer) recovered.toArray(2)[0]).getCategory().intValue());
+		
+		// the recovered manifest carries on journalling
+		recovered.unloadContainer(serialCode(5));
+		recovered.close();
+		recovered = JournaledCargoManifest.recover(file);
+		assertTrue(recovered.whichStack(serialCode(5)) == null);
+		assertEquals(1, recovered.toArray(1).length);
+		recovered.close();
+	}
+	
+	@Test
+	public void testTornRecordIgnored() throws Exception {
+		JournaledCargoManifest cm = JournaledCargoManifest.create(file, 2, 2, 100);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+		cm.close();
+		
+		// cut the last record short, as if the process died while writing it
+		RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+		raf.setLength(raf.length() - 3);
+		raf.close();
+		
+		JournaledCargoManifest recovered = JournaledCargoManifest.recover(file);
+		assertTrue(recovered.whichStack(serialCode(1)).intValue() == 0);
+		assertTrue(recovered.whichStack(serialCode(2)) == null);
+		recovered.loadContainer(new GeneralGoodsContainer(serialCode(3), 10));
+		recovered.close();
+		
+		recovered = JournaledCargoManifest.recover(file);
+		assertTrue(recovered.howHigh(serialCode(3)).intValue() == 1);
+		recovered.close();
+	}
+	
+	@Test
+	public void testConcurrentLoads() throws Exception {
+		final int numThreads = 4;
+		final int perThread = 100;
+		final JournaledCargoManifest cm = JournaledCargoManifest.create(file, numThreads * perThread, 1, 100000);
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < numThreads; t++) {
+			final int first = t * perThread;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = first; i < first + perThread; i++)
+							cm.loadContainer(new GeneralGoodsContainer(serialCode(i), 5));
+					} catch (Exception e) {
+						synchronized (failures) {
+							failures.add(e);
+						}
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertTrue(failures.isEmpty());
+		assertTrue(cm.getForceCount() <= numThreads * perThread);
+		String before = cm.toString();
+		cm.close();
+		
+		JournaledCargoManifest recovered = JournaledCargoManifest.recover(file);
+		assertEquals(before, recovered.toString());
+		recovered.close();
+	}
+	
+	@Test(expected = IOException.class)
+	public void testCreateExisting() throws Exception {
+		JournaledCargoManifest.create(file, 1, 1, 10).close();
+		JournaledCargoManifest.create(file, 1, 1, 10);
+	}
+	
+	@Test
+	public void testGroupCommit() throws Exception {
+		ManifestJournal journal = ManifestJournal.create(file, 10, 10, 1000);
+		long sequence = 0;
+		for (int i = 0; i < 50; i++)
+			sequence = journal.appendLoad(new GeneralGoodsContainer(serialCode(i), 10));
+		assertEquals(0, journal.getForceCount());
+		
+		// one wait makes every record appended before it durable
+		journal.awaitDurable(sequence);
+		assertEquals(1, journal.getForceCount());
+		journal.awaitDurable(1);
+		assertEquals(1, journal.getForceCount());
+		
+		sequence = journal.appendUnload(serialCode(0).asLong());
+		journal.awaitDurable(sequence);
+		assertEquals(2, journal.getForceCount());
+		journal.close();
+	}
+	
+	@Test
+	public void testUnrecordableContainerRejected() throws Exception {
+		JournaledCargoManifest cm = JournaledCargoManifest.create(file, 2, 2, 100);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		FreightContainer other = new FreightContainer(serialCode(2), 10) {
+		};
+		try {
+			// the journal has no record for this type, so it must not be loaded
+			cm.tryLoadContainer(other);
+			fail("Should throw IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+		assertTrue(cm.whichStack(serialCode(2)) == null);
+		
+		// the journal has not failed, so changes carry on
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(3), 10));
+		cm.unloadContainer(serialCode(3));
+		cm.close();
+		
+		JournaledCargoManifest recovered = JournaledCargoManifest.recover(file);
+		assertEquals(cm.toString(), recovered.toString());
+		recovered.close();
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testChangesRejectedAfterClose() throws Exception {
+		JournaledCargoManifest cm = JournaledCargoManifest.create(file, 2, 2, 100);
+		cm.close();
+		cm.tryLoadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+	}
+}
@@ -15,6 +15,17 @@ package asgn2Tests;
 
 
 
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.StreamSupport;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,6 +39,11 @@ import asgn2Exceptions.InvalidCodeException;
 import asgn2Exceptions.InvalidContainerException;
 import asgn2Exceptions.ManifestException;
 import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ContainerVisitor;
+import asgn2Manifests.ManifestOutcome;
+import asgn2Manifests.ManifestStatistics;
+import asgn2Manifests.Placement;
+import static asgn2Tests.TestCodes.serialCode;
 import static org.junit.Assert.*;
 
 public class ManifestTests {
@@ -183,6 +199,156 @@ public class ManifestTests {
 		}
 	}
 	
+	@Test
+	public void testLoadClosestToBridge() {
+		try {
+			CargoManifest cm = new CargoManifest(4, 2, 200);
+			cm.loadContainer(ggContainers[0]);
+			cm.loadContainer(dgContainers[0]);
+			cm.loadContainer(rContainers[0]);
+			cm.loadContainer(ggContainers[1]);
+			assertTrue(cm.whichStack(ggContainers[1].getCode()).intValue() == 0);
+			
+			// emptying stack 1 makes it the closest space for any type
+			cm.unloadContainer(dgContainers[0].getCode());
+			cm.loadContainer(rContainers[1]);
+			assertTrue(cm.whichStack(rContainers[1].getCode()).intValue() == 1);
+			
+			// stack 2 has room for another reefer, but stack 1 is closer
+			cm.unloadContainer(rContainers[1].getCode());
+			cm.loadContainer(rContainers[1]);
+			assertTrue(cm.whichStack(rContainers[1].getCode()).intValue() == 1);
+			
+			// stacks 0 and 1 are full, stack 2 has room for reefers only
+			cm.loadContainer(dgContainers[0]);
+			assertTrue(cm.whichStack(dgContainers[0].getCode()).intValue() == 3);
+			cm.loadContainer(dgContainers[1]);
+			assertTrue(cm.whichStack(dgContainers[1].getCode()).intValue() == 3);
+			
+			// making room at the bottom of the ship re-opens stack 0
+			cm.unloadContainer(ggContainers[1].getCode());
+			cm.unloadContainer(dgContainers[1].getCode());
+			cm.loadContainer(dgContainers[1]);
+			assertTrue(cm.whichStack(dgContainers[1].getCode()).intValue() == 3);
+			cm.loadContainer(ggContainers[1]);
+			assertTrue(cm.whichStack(ggContainers[1].getCode()).intValue() == 0);
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		}
+		
+		// more stacks than fit in one word of the placement sets
+		try {
+			CargoManifest cm = new CargoManifest(200, 1, 1000);
+			for (int i = 0; i < 130; i++)
+				cm.loadContainer(new GeneralGoodsContainer(serialCode(i), 4));
+			cm.unloadContainer(serialCode(70));
+			cm.unloadContainer(serialCode(10));
+			cm.loadContainer(ggContainers[0]);
+			assertTrue(cm.whichStack(ggContainers[0].getCode()).intValue() == 10);
+			cm.loadContainer(ggContainers[1]);
+			assertTrue(cm.whichStack(ggContainers[1].getCode()).intValue() == 70);
+			cm.loadContainer(dgContainers[0]);
+			assertTrue(cm.whichStack(dgContainers[0].getCode()).intValue() == 130);
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		} catch (InvalidContainerException e) {
+			fail(e.getMessage());
+		} catch (InvalidCodeException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testLoadContainers() {
+		// valid case
+		try {
+			CargoManifest cm = new CargoManifest(5, 4, 150);
+			cm.loadContainer(dgContainers[0]);
+			List<Placement> placements = cm.loadContainers(Arrays.asList(
+					ggContainers[0], rContainers[0], dgContainers[1], ggContainers[1]));
+			assertEquals(4, placements.size());
+			assertTrue(placements.get(0).getContainer() == ggContainers[0]);
+			assertEquals(1, placements.get(0).getStackNo());
+			assertEquals(0, placements.get(0).getHeight());
+			assertEquals(2, placements.get(1).getStackNo());
+			assertEquals(0, placements.get(2).getStackNo());
+			assertEquals(1, placements.get(2).getHeight());
+			assertEquals(1, placements.get(3).getStackNo());
+			assertEquals(1, placements.get(3).getHeight());
+			for (Placement placement : placements) {
+				ContainerCode code = placement.getContainer().getCode();
+				assertTrue(cm.whichStack(code).intValue() == placement.getStackNo());
+				assertTrue(cm.howHigh(code).intValue() == placement.getHeight());
+			}
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		}
+		
+		// invalid cases
+		// exceed weight in total
+		try {
+			CargoManifest cm = new CargoManifest(5, 4, 45);
+			cm.loadContainers(Arrays.asList(rContainers[0], dgContainers[0]));
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+		
+		// already on board
+		try {
+			CargoManifest cm = new CargoManifest(5, 4, 150);
+			cm.loadContainer(ggContainers[1]);
+			cm.loadContainers(Arrays.asList(ggContainers[0], ggContainers[1]));
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+		
+		// duplicated within the batch
+		try {
+			CargoManifest cm = new CargoManifest(5, 4, 150);
+			cm.loadContainers(Arrays.asList(ggContainers[0], dgContainers[0], ggContainers[0]));
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+		
+		// no space for the last container
+		long[] versions = new long[NUM_STACKS];
+		try {
+			manifest.unloadContainer(ggContainers[1].getCode());
+			manifest.unloadContainer(ggContainers[0].getCode());
+			manifest.unloadContainer(dgContainers[1].getCode());
+			for (int i = 0; i < NUM_STACKS; i++)
+				versions[i] = manifest.getStackVersion(i);
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		}
+		String before = manifest.toString();
+		try {
+			List<FreightContainer> batch = new ArrayList<FreightContainer>();
+			batch.add(ggContainers[0]);
+			batch.add(ggContainers[1]);
+			batch.add(new GeneralGoodsContainer(new ContainerCode("HBMU4882350"), 5));
+			manifest.loadContainers(batch);
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+			assertEquals(before, manifest.toString());
+			assertTrue(manifest.whichStack(ggContainers[0].getCode()) == null);
+			assertTrue(manifest.whichStack(ggContainers[1].getCode()) == null);
+			assertEquals(ManifestOutcome.LOADED, manifest.tryLoadContainer(ggContainers[0]));
+			assertTrue(manifest.whichStack(ggContainers[0].getCode()).intValue() == 0);
+		} catch (InvalidContainerException e) {
+			fail(e.getMessage());
+		} catch (InvalidCodeException e) {
+			fail(e.getMessage());
+		}
+		try {
+			assertEquals(versions[0] + 1, manifest.getStackVersion(0));
+			for (int i = 1; i < NUM_STACKS; i++)
+				assertEquals(versions[i], manifest.getStackVersion(i));
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		}
+	}
+	
 	@Test
 	public void testUnloadContainer() {
 		// valid cases
@@ -228,6 +394,38 @@ public class ManifestTests {
 		}
 	}
 	
+	@Test
+	public void testTryLoadAndUnload() {
+		try {
+			CargoManifest cm = new CargoManifest(2, 1, 50);
+			assertEquals(ManifestOutcome.LOADED, cm.tryLoadContainer(ggContainers[0]));
+			assertEquals(ManifestOutcome.DUPLICATE, cm.tryLoadContainer(ggContainers[0]));
+			assertEquals(ManifestOutcome.LOADED, cm.tryLoadContainer(dgContainers[0]));
+			assertEquals(ManifestOutcome.OVERWEIGHT, cm.tryLoadContainer(rContainers[0]));
+			assertEquals(ManifestOutcome.NO_SPACE, cm.tryLoadContainer(ggContainers[1]));
+			assertTrue(cm.whichStack(ggContainers[1].getCode()) == null);
+			
+			assertEquals(ManifestOutcome.NOT_FOUND, cm.tryUnloadContainer(ggContainers[1].getCode()));
+			assertEquals(ManifestOutcome.NOT_FOUND, cm.tryUnloadContainer((ContainerCode) null));
+			assertEquals(ManifestOutcome.UNLOADED, cm.tryUnloadContainer(ggContainers[0].getCode()));
+			assertEquals(ManifestOutcome.UNLOADED, cm.tryUnloadContainer(dgContainers[0].getCode().asLong()));
+			assertEquals(ManifestOutcome.LOADED, cm.tryLoadContainer(rContainers[0]));
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		}
+		
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, manifest.tryUnloadContainer(rContainers[0].getCode()));
+		assertTrue(manifest.whichStack(rContainers[0].getCode()).intValue() == 2);
+		
+		// the throwing methods report the outcome's message
+		try {
+			manifest.unloadContainer(rContainers[0].getCode());
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+			assertEquals(ManifestOutcome.NOT_ACCESSIBLE.getMessage(), e.getMessage());
+		}
+	}
+	
 	@Test
 	public void testWhichStack() {
 		assertTrue(manifest.whichStack(ggContainers[0].getCode()).intValue() == 0);
@@ -266,6 +464,114 @@ public class ManifestTests {
 		assertTrue(manifest.howHigh(code) == null);		
 	}
 	
+	@Test
+	public void testPositionsAfterUnloadAndReload() {
+		try {
+			// look up with a separately constructed but equal code
+			assertTrue(manifest.whichStack(new ContainerCode(CODES[3])).intValue() == 1);
+			assertTrue(manifest.howHigh(new ContainerCode(CODES[3])).intValue() == 1);
+			
+			manifest.unloadContainer(dgContainers[1].getCode());
+			assertTrue(manifest.whichStack(dgContainers[1].getCode()) == null);
+			assertTrue(manifest.howHigh(dgContainers[1].getCode()) == null);
+			
+			manifest.unloadContainer(ggContainers[1].getCode());
+			manifest.loadContainer(dgContainers[1]);
+			assertTrue(manifest.whichStack(dgContainers[1].getCode()).intValue() == 1);
+			assertTrue(manifest.howHigh(dgContainers[1].getCode()).intValue() == 1);
+			
+			manifest.loadContainer(ggContainers[1]);
+			assertTrue(manifest.whichStack(ggContainers[1].getCode()).intValue() == 0);
+			assertTrue(manifest.howHigh(ggContainers[1].getCode()).intValue() == 1);
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		} catch (InvalidCodeException e) {
+			fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testPackedLookups() {
+		for (int i = 0; i < cc.length; i++) {
+			long packed = cc[i].asLong();
+			assertEquals(manifest.whichStack(cc[i]).intValue(), manifest.stackOf(packed));
+			assertEquals(manifest.howHigh(cc[i]).intValue(), manifest.heightOf(packed));
+		}
+		
+		try {
+			long notOnBoard = ContainerCode.pack("HBMU4882350");
+			assertEquals(-1, manifest.stackOf(notOnBoard));
+			assertEquals(-1, manifest.heightOf(notOnBoard));
+			assertEquals(-1, manifest.stackOf(-1L));
+		} catch (InvalidCodeException e) {
+			fail(e.getMessage());
+		}
+		
+		// unload by packed code
+		try {
+			manifest.unloadContainer(rContainers[1].getCode().asLong());
+			assertEquals(-1, manifest.stackOf(rContainers[1].getCode().asLong()));
+		} catch (ManifestException e) {
+			fail(e.getMessage());
+		}
+		
+		try {
+			manifest.unloadContainer(rContainers[0].getCode().asLong() + 1);
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {			
+		}
+	}
+	
+	@Test
+	public void testReadsDuringLoading() throws Exception {
+		final CargoManifest cm = new CargoManifest(200, 4, 100000);
+		final ContainerCode[] codes = new ContainerCode[200];
+		for (int i = 0; i < codes.length; i++)
+			codes[i] = serialCode(i);
+		final AtomicBoolean torn = new AtomicBoolean();
+		final AtomicBoolean done = new AtomicBoolean();
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					while (!done.get()) {
+						for (int s = 0; s < cm.getNumStacks(); s++) {
+							FreightContainer[] stack = cm.toArray(s);
+							for (int h = 0; h < stack.length; h++)
+								if (stack[h] == null || stack[h].getClass() != stack[0].getClass())
+									torn.set(true);
+						}
+						for (ContainerCode code : codes) {
+							Integer stackNo = cm.whichStack(code);
+							Integer height = cm.howHigh(code);
+							if (stackNo != null && (stackNo < 0 || stackNo >= cm.getNumStacks()))
+								torn.set(true);
+							if (height != null && (height < 0 || height >= 4))
+								torn.set(true);
+						}
+						String text = cm.toString();
+						if (!text.endsWith("\n") || text.split("\n").length != cm.getNumStacks())
+							torn.set(true);
+					}
+				} catch (ManifestException e) {
+					torn.set(true);
+				}
+			}
+		});
+		reader.start();
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < codes.length; i++)
+				cm.loadContainer(i % 3 == 0
+						? new RefrigeratedContainer(codes[i], 5, -18)
+						: new GeneralGoodsContainer(codes[i], 5));
+			for (int i = codes.length - 1; i >= 0; i--)
+				cm.unloadContainer(codes[i]);
+		}
+		done.set(true);
+		reader.join();
+		assertFalse(torn.get());
+	}
+	
 	@Test
 	public void testToArray() {
 		// valid cases
@@ -320,4 +626,216 @@ public class ManifestTests {
 				"|| QUTU7200318 || IBMU4882351 ||\n";
 		assertEquals(expected, manifest.toString(cc[3]));
 	}
+	
+	@Test
+	public void testAppendTo() throws Exception {
+		StringWriter out = new StringWriter();
+		manifest.appendTo(out, cc[3]);
+		assertEquals(manifest.toString(cc[3]), out.toString());
+		
+		CargoManifest empty = new CargoManifest(2, 1, 10);
+		out = new StringWriter();
+		empty.appendTo(out, null);
+		assertEquals("||  ||\n||  ||\n", out.toString());
+		assertEquals(out.toString(), empty.toString());
+	}
+	
+	@Test
+	public void testStackVersions() throws Exception {
+		long[] before = new long[NUM_STACKS];
+		for (int i = 0; i < NUM_STACKS; i++)
+			before[i] = manifest.getStackVersion(i);
+		manifest.unloadContainer(cc[3]);
+		assertEquals(ManifestOutcome.NOT_FOUND, manifest.tryUnloadContainer(cc[3]));
+		assertTrue(manifest.getStackVersion(0) == before[0]);
+		assertTrue(manifest.getStackVersion(1) > before[1]);
+		assertTrue(manifest.getStackVersion(2) == before[2]);
+		
+		StringBuilder line = new StringBuilder();
+		manifest.appendStack(line, 1, cc[2]);
+		assertEquals("||*MSCU6639871*||\n", line.toString());
+		try {
+			manifest.getStackVersion(NUM_STACKS);
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+	}
+	
+	@Test
+	public void testVisitors() throws Exception {
+		final List<FreightContainer> stack = new ArrayList<FreightContainer>();
+		manifest.forEachInStack(1, new Consumer<FreightContainer>() {
+			@Override
+			public void accept(FreightContainer container) {
+				stack.add(container);
+			}
+		});
+		assertEquals(Arrays.asList(manifest.toArray(1)), stack);
+		
+		final List<FreightContainer> visited = new ArrayList<FreightContainer>();
+		manifest.forEachContainer(new ContainerVisitor() {
+			@Override
+			public void visit(int stackNo, int height, FreightContainer container) {
+				assertTrue(manifest.whichStack(container.getCode()).intValue() == stackNo);
+				assertTrue(manifest.howHigh(container.getCode()).intValue() == height);
+				visited.add(container);
+			}
+		});
+		assertEquals(6, visited.size());
+		
+		final List<FreightContainer> walked = new ArrayList<FreightContainer>();
+		Spliterator<FreightContainer> containers = manifest.spliterator();
+		while (containers.tryAdvance(new Consumer<FreightContainer>() {
+			@Override
+			public void accept(FreightContainer container) {
+				walked.add(container);
+			}
+		}))
+			;
+		assertEquals(visited, walked);
+	}
+	
+	@Test
+	public void testParallelSpliterator() throws Exception {
+		CargoManifest cm = new CargoManifest(1000, 3, 1000000);
+		long total = 0;
+		for (int i = 0; i < 2500; i++) {
+			cm.loadContainer(new GeneralGoodsContainer(serialCode(i), 4 + i % 27));
+			total += 4 + i % 27;
+		}
+		long sum = StreamSupport.stream(cm.spliterator(), true)
+				.mapToLong(new ToLongFunction<FreightContainer>() {
+					@Override
+					public long applyAsLong(FreightContainer container) {
+						return container.getGrossWeight();
+					}
+				}).sum();
+		assertEquals(total, sum);
+		assertEquals(2500, StreamSupport.stream(cm.spliterator(), true).count());
+	}
+	
+	@Test(expected = ConcurrentModificationException.class)
+	public void testSpliteratorFailsOnChange() throws Exception {
+		Spliterator<FreightContainer> containers = manifest.spliterator();
+		Consumer<FreightContainer> ignore = new Consumer<FreightContainer>() {
+			@Override
+			public void accept(FreightContainer container) {
+			}
+		};
+		containers.tryAdvance(ignore);
+		manifest.unloadContainer(cc[5]);
+		containers.tryAdvance(ignore);
+	}
+	
+	@Test
+	public void testQueries() throws Exception {
+		List<FreightContainer> refrigerated = manifest.containersOfType(RefrigeratedContainer.class);
+		assertEquals(2, refrigerated.size());
+		assertTrue(refrigerated.contains(rContainers[0]) && refrigerated.contains(rContainers[1]));
+		assertEquals(Arrays.asList((FreightContainer) dgContainers[0]), manifest.containersOfOwner("MSC"));
+		assertTrue(manifest.containersOfOwner("ABC").isEmpty());
+		
+		List<FreightContainer> weighing = manifest.containersWeighing(4, 30);
+		assertEquals(6, weighing.size());
+		assertEquals(10, weighing.get(0).getGrossWeight().intValue());
+		assertEquals(30, weighing.get(5).getGrossWeight().intValue());
+		assertEquals(2, manifest.containersWeighing(15, 25).size());
+		assertTrue(manifest.containersWeighing(11, 19).isEmpty());
+		
+		assertEquals(Arrays.asList((FreightContainer) dgContainers[1]), manifest.dangerousGoodsOfCategory(2));
+		assertTrue(manifest.dangerousGoodsOfCategory(3).isEmpty());
+		
+		// the indexes follow later changes
+		manifest.unloadContainer(cc[5]);
+		manifest.unloadContainer(cc[3]);
+		assertEquals(Arrays.asList((FreightContainer) rContainers[0]),
+				manifest.containersOfType(RefrigeratedContainer.class));
+		assertTrue(manifest.dangerousGoodsOfCategory(2).isEmpty());
+		assertTrue(manifest.containersOfOwner("CSQ").isEmpty());
+		assertEquals(1, manifest.containersWeighing(30, 30).size());
+		manifest.loadContainer(rContainers[1]);
+		assertEquals(2, manifest.containersOfType(RefrigeratedContainer.class).size());
+		assertEquals(Arrays.asList((FreightContainer) rContainers[1]), manifest.containersOfOwner("IBM"));
+	}
+	
+	@Test
+	public void testQueriesAfterManyChanges() throws Exception {
+		CargoManifest cm = new CargoManifest(100, 5, 1000000);
+		for (int i = 0; i < 500; i++)
+			cm.loadContainer(new GeneralGoodsContainer(serialCode(i), 4 + i % 27));
+		assertEquals(500, cm.containersOfOwner("AAA").size());
+		for (int i = 499; i >= 250; i--)
+			cm.unloadContainer(serialCode(i));
+		int expected = 0;
+		for (int i = 0; i < 250; i++) {
+			if (4 + i % 27 == 12)
+				expected++;
+		}
+		List<FreightContainer> found = cm.containersWeighing(12, 12);
+		assertEquals(expected, found.size());
+		for (FreightContainer container : found)
+			assertEquals(12, container.getGrossWeight().intValue());
+		assertEquals(250, cm.containersOfType(GeneralGoodsContainer.class).size());
+		assertTrue(cm.containersOfType(DangerousGoodsContainer.class).isEmpty());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidOwnerQuery() {
+		manifest.containersOfOwner("msc");
+	}
+	
+	@Test
+	public void testStatistics() throws Exception {
+		ManifestStatistics statistics = manifest.getStatistics();
+		assertEquals(NUM_STACKS, statistics.getNumStacks());
+		assertEquals(6, statistics.getContainerCount());
+		assertEquals(120, statistics.getTotalWeight());
+		assertEquals(0, statistics.getWeightHeadroom());
+		assertEquals(1.0, statistics.getFill(), 1e-9);
+		assertEquals(20, statistics.getStackWeight(0));
+		assertEquals(40, statistics.getStackWeight(1));
+		assertEquals(60, statistics.getStackWeight(2));
+		assertEquals(2, statistics.getCountOfType(RefrigeratedContainer.class));
+		assertEquals(60, statistics.getWeightOfType(RefrigeratedContainer.class));
+		assertEquals(1, statistics.getDangerousGoodsCount(1));
+		assertEquals(1, statistics.getDangerousGoodsCount(2));
+		assertEquals(0, statistics.getDangerousGoodsCount(3));
+		
+		manifest.unloadContainer(cc[3]);
+		manifest.unloadContainer(cc[5]);
+		manifest.unloadContainer(cc[4]);
+		// the earlier snapshot is unchanged
+		assertEquals(6, statistics.getContainerCount());
+		statistics = manifest.getStatistics();
+		assertEquals(3, statistics.getContainerCount());
+		assertEquals(40, statistics.getTotalWeight());
+		assertEquals(80, statistics.getWeightHeadroom());
+		assertEquals(0.5, statistics.getFill(), 1e-9);
+		assertEquals(0.5, statistics.getStackFill(1), 1e-9);
+		assertEquals(0.0, statistics.getStackFill(2), 1e-9);
+		assertEquals(20, statistics.getStackWeight(1));
+		assertEquals(0, statistics.getStackWeight(2));
+		assertEquals(0, statistics.getCountOfType(RefrigeratedContainer.class));
+		assertEquals(0, statistics.getWeightOfType(RefrigeratedContainer.class));
+		assertEquals(2, statistics.getCountOfType(GeneralGoodsContainer.class));
+		assertEquals(1, statistics.getDangerousGoodsCount(1));
+		assertEquals(0, statistics.getDangerousGoodsCount(2));
+	}
+	
+	@Test
+	public void testStatisticsOfOtherType() throws Exception {
+		CargoManifest cm = new CargoManifest(3, 2, 200);
+		FreightContainer other = new FreightContainer(serialCode(1), 25) {
+		};
+		ManifestStatistics before = cm.getStatistics();
+		cm.loadContainer(other);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+		ManifestStatistics statistics = cm.getStatistics();
+		assertEquals(1, statistics.getCountOfType(other.getClass()));
+		assertEquals(25, statistics.getWeightOfType(other.getClass()));
+		assertEquals(1, statistics.getCountOfType(GeneralGoodsContainer.class));
+		assertEquals(0, before.getCountOfType(other.getClass()));
+		cm.unloadContainer(other.getCode());
+		assertEquals(0, cm.getStatistics().getWeightOfType(other.getClass()));
+	}
 }
@@ -0,0 +1,113 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ManifestOutcome;
+import asgn2Manifests.ManifestWriter;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class ManifestWriterTests {
+	private static final int NUM_THREADS = 4;
+	private static final int PER_THREAD = 500;
+	
+	@Test
+	public void testSubmitFromManyThreads() throws Exception {
+		final CargoManifest cm = new CargoManifest(NUM_THREADS * PER_THREAD / 5, 5, 1000000);
+		final ManifestWriter writer = new ManifestWriter(cm, 16);
+		final List<List<CompletableFuture<ManifestOutcome>>> results =
+				new ArrayList<List<CompletableFuture<ManifestOutcome>>>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < NUM_THREADS; t++) {
+			final int first = t * PER_THREAD;
+			final List<CompletableFuture<ManifestOutcome>> futures = new ArrayList<CompletableFuture<ManifestOutcome>>();
+			results.add(futures);
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = first; i < first + PER_THREAD; i++)
+							futures.add(writer.submitLoad(new GeneralGoodsContainer(serialCode(i), 4)));
+						// the same containers again are all duplicates
+						for (int i = first; i < first + PER_THREAD; i++)
+							futures.add(writer.submitLoad(new GeneralGoodsContainer(serialCode(i), 4)));
+					} catch (Exception e) {
+						futures.add(CompletableFuture.<ManifestOutcome>completedFuture(null));
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		for (List<CompletableFuture<ManifestOutcome>> futures : results) {
+			assertEquals(2 * PER_THREAD, futures.size());
+			for (int i = 0; i < futures.size(); i++)
+				assertEquals(i < PER_THREAD ? ManifestOutcome.LOADED : ManifestOutcome.DUPLICATE,
+						futures.get(i).get(10, TimeUnit.SECONDS));
+		}
+		
+		// every future has completed, so the writer is idle and the manifest may be read
+		FreightContainer[] bottomStack = cm.toArray(0);
+		assertEquals(5, bottomStack.length);
+		ContainerCode top = bottomStack[4].getCode();
+		ContainerCode below = bottomStack[3].getCode();
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, writer.submitUnload(below).get(10, TimeUnit.SECONDS));
+		assertEquals(ManifestOutcome.UNLOADED, writer.submitUnload(top).get(10, TimeUnit.SECONDS));
+		writer.close();
+		assertTrue(cm.whichStack(top) == null);
+		assertTrue(cm.whichStack(below).intValue() == 0);
+	}
+	
+	@Test
+	public void testOfferAndClose() throws Exception {
+		CargoManifest cm = new CargoManifest(2, 2, 100);
+		ManifestWriter writer = new ManifestWriter(cm, 1);
+		CompletableFuture<ManifestOutcome> future =
+				writer.offerLoad(new GeneralGoodsContainer(serialCode(1), 10), 10, TimeUnit.SECONDS);
+		assertNotNull(future);
+		assertEquals(ManifestOutcome.LOADED, future.get(10, TimeUnit.SECONDS));
+		future = writer.offerUnload(serialCode(2), 10, TimeUnit.SECONDS);
+		assertEquals(ManifestOutcome.NOT_FOUND, future.get(10, TimeUnit.SECONDS));
+		
+		writer.close();
+		try {
+			writer.submitLoad(new GeneralGoodsContainer(serialCode(3), 10));
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+	}
+	
+	@Test
+	public void testCloseWhenInterrupted() throws Exception {
+		CargoManifest cm = new CargoManifest(2, 2, 100);
+		ManifestWriter writer = new ManifestWriter(cm, 4);
+		CompletableFuture<ManifestOutcome> future =
+				writer.submitLoad(new GeneralGoodsContainer(serialCode(1), 10));
+		Thread.currentThread().interrupt();
+		try {
+			writer.close();
+			assertTrue(Thread.interrupted());
+		} finally {
+			Thread.interrupted();
+		}
+		assertEquals(ManifestOutcome.LOADED, future.get(10, TimeUnit.SECONDS));
+		assertTrue(cm.whichStack(serialCode(1)).intValue() == 0);
+	}
+}
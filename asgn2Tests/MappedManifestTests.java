@@ -0,0 +1,126 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Manifests.ManifestOutcome;
+import asgn2Manifests.MappedCargoManifest;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class MappedManifestTests {
+	private Path dir;
+	private Path file;
+	
+	@Before
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("mapped");
+		file = dir.resolve("manifest.map");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(dir);
+	}
+	
+	@Test
+	public void testReopen() throws Exception {
+		MappedCargoManifest cm = MappedCargoManifest.create(file, 3, 2, 100);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		cm.loadContainer(new RefrigeratedContainer(serialCode(2), 20, -5));
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(3), 10));
+		cm.loadContainer(new DangerousGoodsContainer(serialCode(4), 30, 2));
+		cm.unloadContainer(serialCode(3));
+		String before = cm.toString();
+		cm.close();
+		
+		MappedCargoManifest reopened = MappedCargoManifest.open(file);
+		assertEquals(before, reopened.toString());
+		assertEquals(-5, ((RefrigeratedContainer) reopened.toArray(1)[0]).getTemperature().intValue());
+		assertEquals(ManifestOutcome.DUPLICATE,
+				reopened.tryLoadContainer(new GeneralGoodsContainer(serialCode(1), 10)));
+		// 60 tonnes are on board, so the weight limit carries over too
+		reopened.loadContainer(new GeneralGoodsContainer(serialCode(5), 30));
+		assertTrue(reopened.howHigh(serialCode(5)).intValue() == 1);
+		assertEquals(ManifestOutcome.OVERWEIGHT,
+				reopened.tryLoadContainer(new GeneralGoodsContainer(serialCode(6), 11)));
+		reopened.close();
+	}
+	
+	@Test
+	public void testUnfinishedLoadIgnored() throws Exception {
+		MappedCargoManifest cm = MappedCargoManifest.create(file, 2, 2, 100);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		String before = cm.toString();
+		cm.close();
+		
+		// scribble over the free slots, as if a load died before raising a height
+		RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+		raf.seek(32 + 2 * 4 + 16);
+		for (int i = 0; i < 3 * 16; i++)
+			raf.write(0x5a);
+		raf.close();
+		
+		MappedCargoManifest reopened = MappedCargoManifest.open(file);
+		assertEquals(before, reopened.toString());
+		reopened.loadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+		assertTrue(reopened.howHigh(serialCode(2)).intValue() == 1);
+		reopened.close();
+	}
+	
+	@Test
+	public void testLargerThanTwoGigabytes() throws Exception {
+		// 3000 stacks of 50000 slots need 2.4 GB, so stacks from 2684 on are in a second chunk
+		MappedCargoManifest cm = MappedCargoManifest.create(file, 3000, 50000, 100);
+		assertTrue(Files.size(file) > Integer.MAX_VALUE);
+		cm.loadContainer(new RefrigeratedContainer(serialCode(1), 20, -5));
+		assertEquals(0, cm.toArray(2999).length);
+		cm.close();
+		
+		// move the container from stack 0 to stack 2684 by hand
+		long first = 32;
+		long second = first + 2684 * 4L + 2684 * 50000L * 16;
+		RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+		byte[] record = new byte[16];
+		raf.seek(first + 2684 * 4);
+		raf.readFully(record);
+		raf.seek(second + 316 * 4);
+		raf.write(record);
+		raf.seek(second);
+		raf.writeInt(1);
+		raf.seek(first);
+		raf.writeInt(0);
+		raf.close();
+		
+		MappedCargoManifest reopened = MappedCargoManifest.open(file);
+		assertTrue(reopened.whichStack(serialCode(1)).intValue() == 2684);
+		assertEquals(-5, ((RefrigeratedContainer) reopened.toArray(2684)[0]).getTemperature().intValue());
+		assertEquals(20, reopened.getStatistics().getStackWeight(2684));
+		reopened.unloadContainer(serialCode(1));
+		reopened.loadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+		assertTrue(reopened.whichStack(serialCode(2)).intValue() == 0);
+		assertEquals(0, reopened.toArray(2684).length);
+		reopened.close();
+	}
+	
+	@Test(expected = IOException.class)
+	public void testNotAManifestFile() throws Exception {
+		Files.write(file, new byte[64]);
+		MappedCargoManifest.open(file);
+	}
+}
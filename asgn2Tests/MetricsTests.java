@@ -0,0 +1,134 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Exceptions.ManifestException;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.LatencyHistogram;
+import asgn2Manifests.ManifestMetrics;
+import asgn2Manifests.ManifestOutcome;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class MetricsTests {
+	private CargoManifest manifest;
+	private ManifestMetrics metrics;
+	
+	@Before
+	public void setUp() throws Exception {
+		manifest = new CargoManifest(2, 2, 50);
+		metrics = new ManifestMetrics();
+		manifest.setMetrics(metrics);
+	}
+	
+	@Test
+	public void testHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		for (int i = 1; i <= 1000; i++)
+			histogram.record(i * 1000L);
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500500.0, histogram.getMean(), 1e-6);
+		assertEquals(500000, histogram.getValueAtPercentile(50), 500000 * 0.07);
+		assertEquals(990000, histogram.getValueAtPercentile(99), 990000 * 0.07);
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+		histogram.record(7);
+		assertEquals(7, histogram.getValueAtPercentile(0));
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+	}
+	
+	@Test
+	public void testOutcomesCounted() throws Exception {
+		assertEquals(ManifestOutcome.LOADED, manifest.tryLoadContainer(new GeneralGoodsContainer(serialCode(1), 20)));
+		assertEquals(ManifestOutcome.LOADED, manifest.tryLoadContainer(new GeneralGoodsContainer(serialCode(2), 20)));
+		assertEquals(ManifestOutcome.DUPLICATE, manifest.tryLoadContainer(new GeneralGoodsContainer(serialCode(2), 4)));
+		assertEquals(ManifestOutcome.OVERWEIGHT, manifest.tryLoadContainer(new GeneralGoodsContainer(serialCode(3), 20)));
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, manifest.tryUnloadContainer(serialCode(1)));
+		assertEquals(ManifestOutcome.NOT_FOUND, manifest.tryUnloadContainer(serialCode(3)));
+		assertEquals(ManifestOutcome.UNLOADED, manifest.tryUnloadContainer(serialCode(2)));
+		assertEquals(Integer.valueOf(0), manifest.whichStack(serialCode(1)));
+		assertEquals(Integer.valueOf(0), manifest.howHigh(serialCode(1)));
+		
+		assertEquals(2, metrics.getLoaded());
+		assertEquals(1, metrics.getDuplicate());
+		assertEquals(1, metrics.getOverweight());
+		assertEquals(0, metrics.getNoSpace());
+		assertEquals(1, metrics.getNotAccessible());
+		assertEquals(1, metrics.getNotFound());
+		assertEquals(1, metrics.getUnloaded());
+		assertEquals(4, metrics.getLoadHistogram().getCount());
+		assertEquals(3, metrics.getUnloadHistogram().getCount());
+		assertEquals(2, metrics.getFindHistogram().getCount());
+		assertEquals(4, metrics.getLoadLatency().getCount());
+		
+		String dump = metrics.dump();
+		assertTrue(dump.contains("manifest_operations_total{operation=\"load\",outcome=\"LOADED\"} 2\n"));
+		assertTrue(dump.contains("manifest_operations_total{operation=\"unload\",outcome=\"NOT_FOUND\"} 1\n"));
+		assertTrue(dump.contains("manifest_latency_nanos_count{operation=\"find\"} 2\n"));
+		assertTrue(dump.contains("manifest_latency_nanos{operation=\"unload\",quantile=\"0.99\"} "));
+		
+		metrics.reset();
+		assertEquals(0, metrics.getLoaded());
+		assertEquals(0, metrics.getFindHistogram().getCount());
+	}
+	
+	@Test
+	public void testBatchCountedOnce() throws Exception {
+		manifest.loadContainers(Arrays.asList(new GeneralGoodsContainer(serialCode(1), 10),
+				new GeneralGoodsContainer(serialCode(2), 10)));
+		try {
+			manifest.loadContainers(Arrays.asList(new GeneralGoodsContainer(serialCode(3), 5),
+					new GeneralGoodsContainer(serialCode(4), 5),
+					new GeneralGoodsContainer(serialCode(5), 5)));
+			fail("Should throw ManifestException");
+		} catch (ManifestException e) {
+		}
+		assertEquals(1, metrics.getLoaded());
+		assertEquals(1, metrics.getNoSpace());
+		assertEquals(2, metrics.getLoadHistogram().getCount());
+	}
+	
+	@Test
+	public void testNothingRecordedWhenDisabled() throws Exception {
+		manifest.setMetrics(null);
+		assertNull(manifest.getMetrics());
+		manifest.loadContainer(new GeneralGoodsContainer(serialCode(1), 20));
+		manifest.whichStack(serialCode(1));
+		manifest.unloadContainer(serialCode(1));
+		assertEquals(0, metrics.getLoaded());
+		assertEquals(0, metrics.getUnloaded());
+		assertEquals(0, metrics.getFindHistogram().getCount());
+	}
+	
+	@Test
+	public void testMBean() throws Exception {
+		ObjectName name = metrics.register("test manifest");
+		try {
+			manifest.loadContainer(new GeneralGoodsContainer(serialCode(1), 20));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(1L, server.getAttribute(name, "Loaded"));
+			CompositeData latency = (CompositeData) server.getAttribute(name, "LoadLatency");
+			assertEquals(1L, latency.get("count"));
+			assertTrue(((String) server.invoke(name, "dump", null, null)).contains("outcome=\"LOADED\"} 1"));
+		} finally {
+			ManifestMetrics.unregister(name);
+		}
+	}
+}
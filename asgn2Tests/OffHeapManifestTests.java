@@ -0,0 +1,145 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ManifestOutcome;
+import asgn2Manifests.OffHeapCargoManifest;
+import asgn2Manifests.VoyageArena;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class OffHeapManifestTests {
+	
+	@Test
+	public void testLoadAndUnload() throws Exception {
+		VoyageArena arena = new VoyageArena();
+		CargoManifest expected = new CargoManifest(3, 2, 200);
+		CargoManifest offHeap = new OffHeapCargoManifest(arena, 3, 2, 200);
+		FreightContainer[] containers = {
+			new GeneralGoodsContainer(serialCode(1), 10),
+			new RefrigeratedContainer(serialCode(2), 20, -22),
+			new GeneralGoodsContainer(serialCode(3), 10),
+			new DangerousGoodsContainer(serialCode(4), 30, 1),
+			new GeneralGoodsContainer(serialCode(5), 10),
+			new RefrigeratedContainer(serialCode(6), 20, null)
+		};
+		for (FreightContainer container : containers)
+			assertEquals(expected.tryLoadContainer(container), offHeap.tryLoadContainer(container));
+		assertEquals(expected.toString(serialCode(2)), offHeap.toString(serialCode(2)));
+		assertEquals(-22, ((RefrigeratedContainer) offHeap.toArray(1)[0]).getTemperature().intValue());
+		assertNull(((RefrigeratedContainer) offHeap.toArray(1)[1]).getTemperature());
+		
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, offHeap.tryUnloadContainer(serialCode(1)));
+		assertEquals(ManifestOutcome.UNLOADED, offHeap.tryUnloadContainer(serialCode(3)));
+		assertEquals(ManifestOutcome.UNLOADED, offHeap.tryUnloadContainer(serialCode(1)));
+		assertEquals(0, offHeap.toArray(0).length);
+		offHeap.loadContainer(new DangerousGoodsContainer(serialCode(7), 10, 3));
+		assertTrue(offHeap.whichStack(serialCode(7)).intValue() == 0);
+		arena.close();
+	}
+	
+	@Test
+	public void testCloseArena() throws Exception {
+		VoyageArena arena = new VoyageArena();
+		CargoManifest first = new OffHeapCargoManifest(arena, 10, 5, 1000);
+		CargoManifest second = new OffHeapCargoManifest(arena, 20, 5, 1000);
+		first.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		second.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		assertTrue(arena.getAllocatedBytes() > 30 * 5 * 16);
+		
+		arena.close();
+		assertFalse(arena.isOpen());
+		assertEquals(0, arena.getAllocatedBytes());
+		try {
+			first.toArray(0);
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			second.tryLoadContainer(new GeneralGoodsContainer(serialCode(2), 10));
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			first.whichStack(serialCode(1));
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			first.howHigh(serialCode(1));
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			second.stackOf(serialCode(2).asLong());
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			second.heightOf(serialCode(2).asLong());
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			first.getStatistics();
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			first.containersOfOwner("AAA");
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			new OffHeapCargoManifest(arena, 1, 1, 10);
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+	}
+	
+	@Test
+	public void testCloseFreesMemory() throws Exception {
+		VoyageArena arena = new VoyageArena();
+		CargoManifest manifest = new OffHeapCargoManifest(arena, 1000, 100, 1000);
+		manifest.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		long before = directMemoryUsed();
+		arena.close();
+		assertTrue(before - directMemoryUsed() >= 1000 * 100 * 16);
+	}
+	
+	@Test
+	public void testSpliterator() throws Exception {
+		VoyageArena arena = new VoyageArena();
+		CargoManifest manifest = new OffHeapCargoManifest(arena, 3, 2, 200);
+		manifest.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		manifest.loadContainer(new RefrigeratedContainer(serialCode(2), 20, -5));
+		assertEquals(2, StreamSupport.stream(manifest.spliterator(), false).count());
+		arena.close();
+		try {
+			manifest.spliterator();
+			fail("Should throw IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+	}
+	
+	private static long directMemoryUsed() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class))
+			if (pool.getName().equals("direct"))
+				return pool.getMemoryUsed();
+		throw new AssertionError("No direct buffer pool");
+	}
+}
@@ -0,0 +1,92 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ManifestOutcome;
+import asgn2Manifests.ManifestSnapshot;
+import static asgn2Tests.TestCodes.serialCode;
+import static org.junit.Assert.*;
+
+public class SnapshotTests {
+	private Path dir;
+	private Path file;
+	
+	@Before
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("snapshot");
+		file = dir.resolve("manifest.snapshot");
+	}
+	
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(dir);
+	}
+	
+	@Test
+	public void testSaveAndRestore() throws Exception {
+		CargoManifest cm = new CargoManifest(4, 3, 500);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		cm.loadContainer(new RefrigeratedContainer(serialCode(2), 20, -18));
+		cm.loadContainer(new DangerousGoodsContainer(serialCode(3), 30, 9));
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(4), 10));
+		cm.loadContainer(new RefrigeratedContainer(serialCode(5), 20, null));
+		ManifestSnapshot.save(cm, file);
+		
+		CargoManifest restored = ManifestSnapshot.restore(file);
+		assertEquals(cm.toString(), restored.toString());
+		assertEquals(4, restored.getNumStacks());
+		assertEquals(-18, ((RefrigeratedContainer) restored.toArray(1)[0]).getTemperature().intValue());
+		assertNull(((RefrigeratedContainer) restored.toArray(1)[1]).getTemperature());
+		assertEquals(9, ((DangerousGoodsContainer) restored.toArray(2)[0]).getCategory().intValue());
+		
+		// the restored manifest applies the rules as usual
+		assertEquals(ManifestOutcome.DUPLICATE,
+				restored.tryLoadContainer(new GeneralGoodsContainer(serialCode(4), 10)));
+		assertEquals(ManifestOutcome.NOT_ACCESSIBLE, restored.tryUnloadContainer(serialCode(1)));
+		restored.loadContainer(new GeneralGoodsContainer(serialCode(6), 10));
+		assertTrue(restored.whichStack(serialCode(6)).intValue() == 0);
+		assertTrue(restored.howHigh(serialCode(6)).intValue() == 2);
+		restored.loadContainer(new GeneralGoodsContainer(serialCode(7), 10));
+		assertTrue(restored.whichStack(serialCode(7)).intValue() == 3);
+	}
+	
+	@Test
+	public void testLargeManifest() throws Exception {
+		CargoManifest cm = new CargoManifest(4000, 5, 1000000);
+		for (int i = 0; i < 20000; i++)
+			cm.loadContainer(new GeneralGoodsContainer(serialCode(i), 4 + i % 27));
+		ManifestSnapshot.save(cm, file);
+		CargoManifest restored = ManifestSnapshot.restore(file);
+		assertEquals(cm.toString(), restored.toString());
+	}
+	
+	@Test(expected = IOException.class)
+	public void testDamagedSnapshot() throws Exception {
+		CargoManifest cm = new CargoManifest(2, 2, 100);
+		cm.loadContainer(new GeneralGoodsContainer(serialCode(1), 10));
+		ManifestSnapshot.save(cm, file);
+		
+		RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+		raf.seek(raf.length() - 8);
+		raf.write(99);
+		raf.close();
+		ManifestSnapshot.restore(file);
+	}
+}
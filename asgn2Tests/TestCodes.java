@@ -0,0 +1,28 @@
+package asgn2Tests;
+
+/**
+ * @author yaman-n8719471
+ * @version 1.0
+ */
+
+import asgn2Codes.ContainerCode;
+import asgn2Exceptions.InvalidCodeException;
+
+/**
+ * Container codes for test fixtures.
+ */
+final class TestCodes {
+	
+	private TestCodes() {
+	}
+	
+	/**
+	 * Returns the container code with owner code AAA and the given serial number.
+	 */
+	static ContainerCode serialCode(int serial) throws InvalidCodeException {
+		long packed = serial * 10L;
+		while (!ContainerCode.isPacked(packed))
+			packed++;
+		return ContainerCode.valueOf(packed);
+	}
+}
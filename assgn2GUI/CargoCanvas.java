@@ -2,6 +2,11 @@ package asgn2GUI;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.swing.JPanel;
 
@@ -28,6 +33,12 @@ public class CargoCanvas extends JPanel {
     private final CargoManifest cargo;
 
     private ContainerCode toFind;
+    private int highlightedStack = -1; // the stack holding toFind, if any
+
+    private final FreightContainer[][] stacks; // the containers last fetched for each stack
+    private final long[] versions; // the version of each stack when it was fetched
+    private final Map<Class<?>, Image> tiles = new HashMap<Class<?>, Image>();
+    private Image highlightTile;
 
     /**
      * Constructor
@@ -37,51 +48,121 @@ public class CargoCanvas extends JPanel {
      */
     public CargoCanvas(CargoManifest cargo) {
         this.cargo = cargo;
+        this.stacks = new FreightContainer[cargo.getNumStacks()][];
+        this.versions = new long[cargo.getNumStacks()];
         setName("Canvas");
     }
 
     /**
-     * Highlights a container.
+     * Highlights a container.  Only the stacks holding the old and new
+     * highlighted containers are repainted.
      *
      * @param code ContainerCode to highlight.
      */
     public void setToFind(ContainerCode code) {
         //implementation here - don't forget to repaint
     	toFind = code;
-    	repaint();
+    	Integer found = code == null ? null : cargo.whichStack(code);
+    	int foundStack = found == null ? -1 : found;
+    	if (highlightedStack >= 0)
+    		repaint(stackBounds(highlightedStack));
+    	if (foundStack >= 0)
+    		repaint(stackBounds(foundStack));
+    	highlightedStack = foundStack;
+    }
+
+    /**
+     * Repaints the stacks that have changed since they were last painted.
+     */
+    public void updateDisplay() {
+    	for (int stackNo = 0; stackNo < stacks.length; stackNo++) {
+    		if (stacks[stackNo] == null || stackVersion(stackNo) != versions[stackNo])
+    			repaint(stackBounds(stackNo));
+    	}
     }
 
     /**
      * Draws the containers in the cargo manifest on the Graphics context of the Canvas.
+     * Only the stacks within the clip are drawn, and a stack's containers are
+     * fetched from the manifest again only if the stack has changed.
      *
      * @param g The Graphics context to draw on.
      */
     @Override
     public void paint(Graphics g) {
     	//Implementation here
-    	int x = 0;
-    	int y = VSPACE;
-    	for (int stackNo = 0; stackNo < cargo.getNumStacks(); stackNo++){
+    	RenderEvent event = RenderEvent.start();
+    	int drawn = 0;
+    	Rectangle clip = g.getClipBounds();
+    	if (clip == null)
+    		clip = new Rectangle(0, 0, getWidth(), getHeight());
+    	g.setColor(getBackground());
+    	g.fillRect(clip.x, clip.y, clip.width, clip.height);
+    	
+    	int first = Math.max(0, (clip.y - VSPACE) / (HEIGHT + VSPACE));
+    	int last = Math.min(stacks.length - 1, (clip.y + clip.height - VSPACE) / (HEIGHT + VSPACE));
+    	for (int stackNo = first; stackNo <= last; stackNo++){
+    		int x = HSPACE/2;
+    		int y = VSPACE + stackNo * (HEIGHT + VSPACE);
+    		
     		// draw a vertical bar
-    		x = HSPACE/2;
     		g.setColor(Color.BLACK);
     		g.drawRect(x, y, 1, HEIGHT);
     		g.fillRect(x, y, 1, HEIGHT);
     		
-    		// draw containers in the current stack
+    		// draw containers in the current stack that are within the clip
+    		FreightContainer[] containers = containersIn(stackNo);
+    		x = HSPACE;
+    		for (int i = 0; i < containers.length && x < clip.x + clip.width; i++){
+    			if (x + WIDTH >= clip.x) {
+    				drawContainer(g, containers[i], x, y);
+    				drawn++;
+    			}
+    			x += WIDTH + HSPACE;
+    		}
+    	}
+    	if (event != null)
+    		event.finish(getName(), Math.max(0, last - first + 1), drawn);
+    }
+
+    /**
+     * Returns the containers in a stack, fetching them from the manifest
+     * only if the stack has changed since they were last fetched.
+     *
+     * @param stackNo the stack to be drawn
+     * @return the stack's containers, bottom first
+     */
+    private FreightContainer[] containersIn(int stackNo) {
+    	long version = stackVersion(stackNo);
+    	if (stacks[stackNo] == null || version != versions[stackNo]) {
     		try {
-    			x = HSPACE;
-				FreightContainer[] containers = cargo.toArray(stackNo);				
-				for (int i = 0; i < containers.length; i++){
-					drawContainer(g, containers[i], x, y);
-					x += WIDTH + HSPACE;
-				}
-			} catch (ManifestException e) {
-				e.printStackTrace(); // should not be here
-			}
-    		
-    		y += HEIGHT + VSPACE;
+    			stacks[stackNo] = cargo.toArray(stackNo);
+    			versions[stackNo] = version;
+    		} catch (ManifestException e) {
+    			e.printStackTrace(); // should not be here
+    			return new FreightContainer[0];
+    		}
     	}
+    	return stacks[stackNo];
+    }
+
+    private long stackVersion(int stackNo) {
+    	try {
+    		return cargo.getStackVersion(stackNo);
+    	} catch (ManifestException e) {
+    		e.printStackTrace(); // should not be here
+    		return -1;
+    	}
+    }
+
+    /**
+     * Returns the area of the canvas in which a stack is drawn.
+     *
+     * @param stackNo the stack number
+     * @return the stack's bounding rectangle
+     */
+    private Rectangle stackBounds(int stackNo) {
+    	return new Rectangle(0, VSPACE + stackNo * (HEIGHT + VSPACE), getWidth(), HEIGHT + 1);
     }
 
     /**
@@ -98,22 +179,52 @@ public class CargoCanvas extends JPanel {
     	//Feel free to use some other method structure here, but this is the basis for the demo. 
     	//Obviously you need the graphics context and container as parameters. 
     	//But you can also use images if you wish.
-    	if (toFind != null && container.getCode().equals(toFind))
-    		g.setColor(Color.YELLOW); // use yellow for highlighting toFind
-    	else if (container instanceof DangerousGoodsContainer)
-    		g.setColor(Color.RED);
-    	else if (container instanceof RefrigeratedContainer)
-    		g.setColor(Color.DARK_GRAY);
-    	else if (container instanceof GeneralGoodsContainer)
-    		g.setColor(Color.BLUE);
-    	
-    	g.drawRect(x, y, WIDTH, HEIGHT);
-		g.fillRect(x, y, WIDTH, HEIGHT);
+    	boolean highlighted = toFind != null && container.getCode().equals(toFind);
+    	g.drawImage(tileFor(container.getClass(), highlighted), x, y, null);
 		
-		if (toFind != null && container.getCode().equals(toFind))
+		if (highlighted)
     		g.setColor(Color.BLACK); // set text color to black for easy view
 		else
 			g.setColor(Color.WHITE);
 		g.drawString(container.getCode().toString(), x + 18, y + 25);
     }
+
+    /**
+     * Returns the pre-rendered box for containers of a given type, drawing
+     * it the first time it is needed.
+     *
+     * @param type the container's class
+     * @param highlighted true for the container being searched for
+     * @return the tile
+     */
+    private Image tileFor(Class<?> type, boolean highlighted) {
+    	if (highlighted) {
+    		if (highlightTile == null)
+    			highlightTile = createTile(Color.YELLOW); // use yellow for highlighting toFind
+    		return highlightTile;
+    	}
+    	Image tile = tiles.get(type);
+    	if (tile == null) {
+    		Color colour = Color.BLACK;
+    		if (DangerousGoodsContainer.class.isAssignableFrom(type))
+    			colour = Color.RED;
+    		else if (RefrigeratedContainer.class.isAssignableFrom(type))
+    			colour = Color.DARK_GRAY;
+    		else if (GeneralGoodsContainer.class.isAssignableFrom(type))
+    			colour = Color.BLUE;
+    		tile = createTile(colour);
+    		tiles.put(type, tile);
+    	}
+    	return tile;
+    }
+
+    private static Image createTile(Color colour) {
+    	BufferedImage tile = new BufferedImage(WIDTH + 1, HEIGHT + 1, BufferedImage.TYPE_INT_ARGB);
+    	Graphics g = tile.getGraphics();
+    	g.setColor(colour);
+    	g.drawRect(0, 0, WIDTH, HEIGHT);
+    	g.fillRect(0, 0, WIDTH, HEIGHT);
+    	g.dispose();
+    	return tile;
+    }
 }
@@ -1,11 +1,15 @@
 package asgn2GUI;
 
 import java.awt.Font;
+import java.io.IOException;
 
 import javax.swing.JTextArea;
+import javax.swing.text.BadLocationException;
 
 import asgn2Codes.ContainerCode;
+import asgn2Exceptions.ManifestException;
 import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ManifestRenderer;
 
 /**
  * Creates a JTextArea in which textual components are laid out to represent the cargo manifest.
@@ -23,6 +27,10 @@ public class CargoTextArea extends JTextArea {
 
     private ContainerCode toFind;
 
+    private long[] shownVersions; // the version of each stack on display, or null before the first display
+    private int shownStack = -1; // the stack shown with a highlighted container, if any
+    private final StringBuilder line = new StringBuilder();
+
     /**
      * Constructor initialises the JTextArea.
      *
@@ -50,12 +58,63 @@ public class CargoTextArea extends JTextArea {
 
     /**
      * Outputs the container representation from the cargo manifest on the text area.
+     * After the first time, only the lines of stacks that have changed, and
+     * those of the old and new highlighted containers, are replaced.
      */
     public void updateDisplay() {
     	//implementation here
-    	if (toFind == null)
-    		setText(cargo.toString());
-    	else
-    		setText(cargo.toString(toFind));
+    	RenderEvent event = RenderEvent.start();
+    	int linesDrawn = 0;
+    	int containersDrawn = 0;
+    	int numStacks = cargo.getNumStacks();
+    	Integer found = toFind == null ? null : cargo.whichStack(toFind);
+    	int foundStack = found == null ? -1 : found;
+    	try {
+    		if (shownVersions == null) {
+    			shownVersions = new long[numStacks];
+    			for (int stackNo = 0; stackNo < numStacks; stackNo++)
+    				shownVersions[stackNo] = cargo.getStackVersion(stackNo);
+    			setText(cargo.toString(toFind));
+    			if (event != null) {
+    				linesDrawn = numStacks;
+    				for (int stackNo = 0; stackNo < numStacks; stackNo++)
+    					containersDrawn += ManifestRenderer.heightOf(
+    							getLineEndOffset(stackNo) - getLineStartOffset(stackNo));
+    			}
+    		} else {
+    			for (int stackNo = 0; stackNo < numStacks; stackNo++) {
+    				long version = cargo.getStackVersion(stackNo);
+    				if (version != shownVersions[stackNo] || stackNo == shownStack || stackNo == foundStack) {
+    					shownVersions[stackNo] = version;
+    					containersDrawn += replaceLine(stackNo);
+    					linesDrawn++;
+    				}
+    			}
+    		}
+    	} catch (ManifestException e) {
+    		e.printStackTrace(); // should not be here
+    	} catch (BadLocationException e) {
+    		e.printStackTrace(); // should not be here
+    	}
+    	shownStack = foundStack;
+    	if (event != null)
+    		event.finish(getName(), linesDrawn, containersDrawn);
+    }
+
+    /**
+     * Replaces the line for one stack in the document.
+     *
+     * @param stackNo the stack whose line is out of date
+     * @return the number of containers on the new line
+     */
+    private int replaceLine(int stackNo) throws ManifestException, BadLocationException {
+    	line.setLength(0);
+    	try {
+    		cargo.appendStack(line, stackNo, toFind);
+    	} catch (IOException e) {
+    		throw new IllegalStateException(e); // cannot happen, StringBuilder does not throw
+    	}
+    	replaceRange(line.toString(), getLineStartOffset(stackNo), getLineEndOffset(stackNo));
+    	return ManifestRenderer.heightOf(line.length());
     }
 }
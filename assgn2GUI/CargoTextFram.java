@@ -72,6 +72,7 @@ public class CargoFrame extends JFrame {
             enableButtons();
         }
         redraw();
+        repaint();
     }
 
     /**
@@ -261,9 +262,13 @@ public class CargoFrame extends JFrame {
     	}
     }
 
+    /**
+     * Updates the display area, repainting only the stacks that have changed.
+     */
     private void redraw() {
         invalidate();
         validate();
-        repaint();
+        if (canvas != null)
+            canvas.updateDisplay();
     }
 }
@@ -0,0 +1,63 @@
+package asgn2GUI;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for one redraw of a cargo display, so
+ * that slow redraws can be lined up with garbage collection and event
+ * dispatch thread stalls in a recording.
+ *
+ * @author Fatimah-n8631000
+ */
+@Name("asgn2.CargoRender")
+@Label("Cargo Display Render")
+@Category({"Cargo", "GUI"})
+@Description("A redraw of the cargo canvas or the cargo text area")
+final class RenderEvent extends Event {
+
+    private static final RenderEvent PROBE = new RenderEvent();
+
+    @Label("Component")
+    String component;
+
+    @Label("Stacks Drawn")
+    int stacks;
+
+    @Label("Containers Drawn")
+    int containers;
+
+    /**
+     * Starts timing a redraw.
+     *
+     * @return the event, or null if the event is not being recorded
+     */
+    static RenderEvent start() {
+    	if (!PROBE.isEnabled())
+    		return null;
+    	RenderEvent event = new RenderEvent();
+    	event.begin();
+    	return event;
+    }
+
+    /**
+     * Finishes timing a redraw and records it, if it took long enough to
+     * be of interest.
+     *
+     * @param component the name of the component redrawn
+     * @param stacks the number of stacks drawn
+     * @param containers the number of containers in those stacks
+     */
+    void finish(String component, int stacks, int containers) {
+    	end();
+    	if (shouldCommit()) {
+    		this.component = component;
+    		this.stacks = stacks;
+    		this.containers = containers;
+    		commit();
+    	}
+    }
+}
@@ -0,0 +1,104 @@
+package asgn2Benchmarks;
+
+import java.util.Random;
+
+import asgn2Codes.CodeValidity;
+
+/**
+ * Generates container code strings for benchmarks: valid codes with
+ * random owners and serial numbers, and invalid codes that break one
+ * chosen rule, at a random place in the field concerned.  The same
+ * seed always gives the same codes, so runs can be compared.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+public final class CodeCorpus {
+
+	private static final int OWNER_LENGTH = 3;
+	private static final int SERIAL_START = 4;
+	private static final int SERIAL_LENGTH = 6;
+	private static final int CHECK_DIGIT_POS = 10;
+
+	private final Random random;
+
+	/**
+	 * Constructs a generator.
+	 *
+	 * @param seed the seed for the random choices
+	 */
+	public CodeCorpus(long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * Returns a random valid container code.
+	 *
+	 * @return an 11-character code with a correct check digit
+	 */
+	public String nextValid() {
+		char[] chars = new char[CHECK_DIGIT_POS + 1];
+		int sum = 0;
+		for (int i = 0; i < OWNER_LENGTH; i++) {
+			int letter = random.nextInt(26);
+			chars[i] = (char) ('A' + letter);
+			sum += letter;
+		}
+		chars[OWNER_LENGTH] = 'U';
+		sum += 'U' - 'A';
+		for (int i = SERIAL_START; i < SERIAL_START + SERIAL_LENGTH; i++) {
+			int digit = random.nextInt(10);
+			chars[i] = (char) ('0' + digit);
+			sum += digit;
+		}
+		chars[CHECK_DIGIT_POS] = (char) ('0' + sum % 10);
+		return new String(chars);
+	}
+
+	/**
+	 * Returns a random code that is rejected for the given reason.
+	 *
+	 * @param reason the rule the code should break, or <code>VALID</code>
+	 * for a valid code
+	 * @return the code
+	 */
+	public String next(CodeValidity reason) {
+		char[] chars = nextValid().toCharArray();
+		switch (reason) {
+		case VALID:
+			break;
+		case WRONG_LENGTH:
+			return random.nextBoolean() ? new String(chars, 0, CHECK_DIGIT_POS)
+					: new String(chars) + chars[CHECK_DIGIT_POS];
+		case BAD_OWNER_CODE:
+			chars[random.nextInt(OWNER_LENGTH)] += 'a' - 'A';
+			break;
+		case BAD_CATEGORY:
+			chars[OWNER_LENGTH] = random.nextBoolean() ? 'J' : 'Z';
+			break;
+		case BAD_SERIAL_NUMBER:
+			chars[SERIAL_START + random.nextInt(SERIAL_LENGTH)] = (char) ('A' + random.nextInt(26));
+			break;
+		case BAD_CHECK_DIGIT:
+			chars[CHECK_DIGIT_POS] = (char) ('0' + (chars[CHECK_DIGIT_POS] - '0' + 1 + random.nextInt(9)) % 10);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown reason " + reason);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Returns a number of codes that are rejected for the given reason.
+	 *
+	 * @param reason the rule the codes should break, or <code>VALID</code>
+	 * @param count the number of codes wanted
+	 * @return the codes
+	 */
+	public String[] codes(CodeValidity reason, int count) {
+		String[] codes = new String[count];
+		for (int i = 0; i < count; i++)
+			codes[i] = next(reason);
+		return codes;
+	}
+}
@@ -0,0 +1,191 @@
+package asgn2Benchmarks;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import asgn2Codes.CodeValidity;
+import asgn2Codes.ContainerCode;
+import asgn2Codes.ContainerCodeParser;
+import asgn2Exceptions.InvalidCodeException;
+
+/**
+ * JMH benchmarks for <code>ContainerCode</code>: constructing codes
+ * from strings, both valid ones and ones that break each rule in turn,
+ * comparing codes, and using them as hash map keys.  Codes come from a
+ * <code>CodeCorpus</code> with a fixed seed, so every run sees the same
+ * codes.
+ * <p>
+ * Construction is also measured through
+ * <code>ContainerCodeParser.parse</code>, which rejects a code without
+ * making an exception.  <code>main</code> adds the GC profiler so the
+ * bytes allocated per operation are reported alongside the times, and
+ * passes on any JMH command-line options.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContainerCodeBenchmarks {
+
+	/** The number of codes in each corpus, a power of two. */
+	private static final int CORPUS_SIZE = 4096;
+	private static final long SEED = 6346;
+
+	/**
+	 * Code strings that are either valid or all break the same rule.
+	 */
+	@State(Scope.Thread)
+	public static class Strings {
+
+		@Param({"VALID", "WRONG_LENGTH", "BAD_OWNER_CODE", "BAD_CATEGORY",
+				"BAD_SERIAL_NUMBER", "BAD_CHECK_DIGIT"})
+		public CodeValidity validity;
+
+		private String[] codes;
+		private int next;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			codes = new CodeCorpus(SEED).codes(validity, CORPUS_SIZE);
+		}
+
+		private String next() {
+			next = (next + 1) & (CORPUS_SIZE - 1);
+			return codes[next];
+		}
+	}
+
+	/**
+	 * Valid codes, separate copies of each, and a map holding them.
+	 */
+	@State(Scope.Thread)
+	public static class Codes {
+
+		private ContainerCode[] codes;
+		private ContainerCode[] copies; // equal to codes, but different objects
+		private ContainerCode[] absent; // codes not in the map
+		private HashMap<ContainerCode, Integer> map;
+		private int next;
+
+		@Setup(Level.Trial)
+		public void setUp() throws InvalidCodeException {
+			CodeCorpus corpus = new CodeCorpus(SEED);
+			codes = new ContainerCode[CORPUS_SIZE];
+			copies = new ContainerCode[CORPUS_SIZE];
+			absent = new ContainerCode[CORPUS_SIZE];
+			map = new HashMap<ContainerCode, Integer>();
+			for (int i = 0; i < CORPUS_SIZE; i++) {
+				String code;
+				do {
+					code = corpus.nextValid();
+				} while (map.containsKey(new ContainerCode(code)));
+				codes[i] = new ContainerCode(code);
+				copies[i] = new ContainerCode(code);
+				map.put(codes[i], i);
+			}
+			for (int i = 0; i < CORPUS_SIZE; i++) {
+				ContainerCode code;
+				do {
+					code = new ContainerCode(corpus.nextValid());
+				} while (map.containsKey(code));
+				absent[i] = code;
+			}
+		}
+
+		private int next() {
+			next = (next + 1) & (CORPUS_SIZE - 1);
+			return next;
+		}
+	}
+
+	@Benchmark
+	public Object construct(Strings strings) {
+		try {
+			return new ContainerCode(strings.next());
+		} catch (InvalidCodeException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public long parse(Strings strings) {
+		return ContainerCodeParser.parse(strings.next());
+	}
+
+	@Benchmark
+	public boolean equalsEqual(Codes codes) {
+		int i = codes.next();
+		return codes.codes[i].equals(codes.copies[i]);
+	}
+
+	@Benchmark
+	public boolean equalsUnequal(Codes codes) {
+		int i = codes.next();
+		return codes.codes[i].equals(codes.codes[(i + 1) & (CORPUS_SIZE - 1)]);
+	}
+
+	@Benchmark
+	public int hash(Codes codes) {
+		return codes.codes[codes.next()].hashCode();
+	}
+
+	@Benchmark
+	public Integer mapHit(Codes codes) {
+		return codes.map.get(codes.copies[codes.next()]);
+	}
+
+	@Benchmark
+	public Integer mapMiss(Codes codes) {
+		return codes.map.get(codes.absent[codes.next()]);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CORPUS_SIZE)
+	public HashMap<ContainerCode, Integer> mapBuild(Codes codes) {
+		HashMap<ContainerCode, Integer> map = new HashMap<ContainerCode, Integer>();
+		for (int i = 0; i < CORPUS_SIZE; i++)
+			map.put(codes.codes[i], i);
+		return map;
+	}
+
+	/**
+	 * Runs the benchmarks with the GC profiler, passing on any JMH
+	 * command-line options.
+	 *
+	 * @param args JMH options
+	 * @throws RunnerException if a benchmark fails
+	 * @throws CommandLineOptionException if the options are invalid
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions options = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).addProfiler(GCProfiler.class);
+		if (options.getIncludes().isEmpty())
+			builder.include(ContainerCodeBenchmarks.class.getName());
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,273 @@
+package asgn2Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import asgn2Codes.ContainerCode;
+import asgn2Containers.DangerousGoodsContainer;
+import asgn2Containers.FreightContainer;
+import asgn2Containers.GeneralGoodsContainer;
+import asgn2Containers.RefrigeratedContainer;
+import asgn2Exceptions.CargoException;
+import asgn2Exceptions.ManifestException;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ManifestOutcome;
+
+/**
+ * JMH benchmarks for the main <code>CargoManifest</code> operations on
+ * ships from 10 to 10,000 stacks, with stacks from 4 to 20 high and
+ * filled to between 10% and 90% of their space.  The cargo is a
+ * typical mix of 60% general goods, 25% refrigerated and 15% dangerous
+ * goods containers, with random weights, temperatures and categories.
+ * <p>
+ * Each operation is reported both as throughput and as average time,
+ * and <code>main</code> adds the GC profiler so the allocation rate
+ * (<code>gc.alloc.rate.norm</code>, bytes per operation) is reported too.
+ * Any standard JMH options may be given on the command line, e.g.,
+ * <pre>
+ * java -cp ... asgn2Benchmarks.ManifestBenchmarks ManifestBenchmarks.whichStack -p numStacks=10000
+ * </pre>
+ * <p>
+ * Loads and unloads are measured separately.  <code>load</code> and
+ * <code>unloadTop</code> load and unload one spare container, and a
+ * per-invocation setup takes it off or puts it back beforehand, so the
+ * manifest stays at the same fill level however long they run.  The
+ * spare is chosen so that the rules accept it, unless the ship has no
+ * room for any container at all.  Per-invocation setup makes JMH time
+ * each call on its own, so the timer's own cost is included in these
+ * two; compare them with each other rather than with the lookups.
+ * Rejected operations are measured by their own benchmarks: loading a
+ * duplicate, unloading a container with others on top of it, and
+ * unloading one that is not on board.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ManifestBenchmarks {
+
+	/** The heaviest a container can be, in tonnes. */
+	private static final int MAX_GROSS_WEIGHT = 30;
+	/** The number of codes that are never loaded, for failed lookups. */
+	private static final int NUM_MISSING = 1024;
+
+	@Param({"10", "100", "1000", "10000"})
+	public int numStacks;
+
+	@Param({"4", "8", "20"})
+	public int maxHeight;
+
+	@Param({"0.1", "0.5", "0.9"})
+	public double fill;
+
+	private CargoManifest manifest;
+	private ContainerCode[] onBoard; // codes of containers loaded
+	private ContainerCode[] missing; // codes of containers not loaded
+	private ContainerCode[] buried; // codes of containers with others on top of them
+	private FreightContainer spare; // a container the rules accept, loaded and unloaded by turns
+	private FreightContainer duplicate; // a new container with the same code as one on board
+	private int nextOnBoard;
+	private int nextMissing;
+	private int nextBuried;
+	private int nextStack;
+
+	/**
+	 * Takes the spare container off the ship before each call, so that
+	 * <code>load</code> always loads it.
+	 */
+	@State(Scope.Thread)
+	public static class SpareOffBoard {
+		@Setup(Level.Invocation)
+		public void takeOff(ManifestBenchmarks benchmarks) {
+			benchmarks.manifest.tryUnloadContainer(benchmarks.spare.getCode());
+		}
+	}
+
+	/**
+	 * Puts the spare container back on top of a stack before each call,
+	 * so that <code>unloadTop</code> always unloads it.
+	 */
+	@State(Scope.Thread)
+	public static class SpareOnBoard {
+		@Setup(Level.Invocation)
+		public void putOn(ManifestBenchmarks benchmarks) {
+			benchmarks.manifest.tryLoadContainer(benchmarks.spare);
+		}
+	}
+
+	/**
+	 * Loads the manifest to the chosen fill level.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws ManifestException, CargoException {
+		Random random = new Random(6346);
+		long slots = (long) numStacks * maxHeight;
+		manifest = new CargoManifest(numStacks, maxHeight, (int) Math.min(Integer.MAX_VALUE,
+				slots * MAX_GROSS_WEIGHT));
+
+		int wanted = (int) (slots * fill);
+		List<ContainerCode> loaded = new ArrayList<ContainerCode>(wanted);
+		long serial = 0;
+		// containers of a type with no room left are rejected, so give up
+		// after a while if the mix cannot reach the fill level exactly
+		for (int tries = 0; loaded.size() < wanted && tries < 2 * slots; tries++) {
+			FreightContainer container = mixedContainer(random, codeFor(serial++));
+			if (manifest.tryLoadContainer(container).isSuccess())
+				loaded.add(container.getCode());
+		}
+		if (loaded.isEmpty())
+			loaded.add(codeFor(serial++)); // a code to look up, even if nothing fitted
+		onBoard = loaded.toArray(new ContainerCode[loaded.size()]);
+
+		missing = new ContainerCode[NUM_MISSING];
+		for (int i = 0; i < missing.length; i++)
+			missing[i] = codeFor(serial++);
+		duplicate = new GeneralGoodsContainer(onBoard[0], 10);
+
+		List<ContainerCode> underneath = new ArrayList<ContainerCode>();
+		for (int i = 0; i < numStacks; i++) {
+			FreightContainer[] stack = manifest.toArray(i);
+			for (int j = 0; j < stack.length - 1; j++)
+				underneath.add(stack[j].getCode());
+		}
+		if (underneath.isEmpty())
+			underneath.add(missing[0]); // nothing is buried, so this measures a missing container
+		buried = underneath.toArray(new ContainerCode[underneath.size()]);
+
+		// find a spare that fits, then take it off again; it is on top, so it can be
+		for (int tries = 0; tries < 1000; tries++) {
+			spare = mixedContainer(random, codeFor(serial++));
+			if (manifest.tryLoadContainer(spare).isSuccess()) {
+				manifest.tryUnloadContainer(spare.getCode());
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns a container of the typical mix of types, with a random
+	 * weight, temperature or category.
+	 */
+	static FreightContainer mixedContainer(Random random, ContainerCode code) throws CargoException {
+		int grossWeight = 4 + random.nextInt(MAX_GROSS_WEIGHT - 3);
+		int kind = random.nextInt(100);
+		if (kind < 60)
+			return new GeneralGoodsContainer(code, grossWeight);
+		if (kind < 85)
+			return new RefrigeratedContainer(code, grossWeight, -25 + random.nextInt(30));
+		return new DangerousGoodsContainer(code, grossWeight, 1 + random.nextInt(9));
+	}
+
+	/**
+	 * Returns a distinct valid code for each serial number.
+	 */
+	static ContainerCode codeFor(long serial) throws CargoException {
+		long packed = serial * 10;
+		while (!ContainerCode.isPacked(packed))
+			packed++;
+		return ContainerCode.valueOf(packed);
+	}
+
+	@Benchmark
+	public ManifestOutcome load(SpareOffBoard offBoard) {
+		return manifest.tryLoadContainer(spare);
+	}
+
+	@Benchmark
+	public ManifestOutcome loadDuplicate() {
+		return manifest.tryLoadContainer(duplicate);
+	}
+
+	@Benchmark
+	public ManifestOutcome unloadTop(SpareOnBoard onBoard) {
+		return manifest.tryUnloadContainer(spare.getCode());
+	}
+
+	@Benchmark
+	public ManifestOutcome unloadBuried() {
+		if (++nextBuried == buried.length)
+			nextBuried = 0;
+		return manifest.tryUnloadContainer(buried[nextBuried]);
+	}
+
+	@Benchmark
+	public ManifestOutcome unloadMissing() {
+		nextMissing = (nextMissing + 1) & (NUM_MISSING - 1);
+		return manifest.tryUnloadContainer(missing[nextMissing]);
+	}
+
+	@Benchmark
+	public Integer whichStack() {
+		if (++nextOnBoard == onBoard.length)
+			nextOnBoard = 0;
+		return manifest.whichStack(onBoard[nextOnBoard]);
+	}
+
+	@Benchmark
+	public Integer whichStackMissing() {
+		nextMissing = (nextMissing + 1) & (NUM_MISSING - 1);
+		return manifest.whichStack(missing[nextMissing]);
+	}
+
+	@Benchmark
+	public Integer howHigh() {
+		if (++nextOnBoard == onBoard.length)
+			nextOnBoard = 0;
+		return manifest.howHigh(onBoard[nextOnBoard]);
+	}
+
+	@Benchmark
+	public FreightContainer[] toArray() throws ManifestException {
+		if (++nextStack == numStacks)
+			nextStack = 0;
+		return manifest.toArray(nextStack);
+	}
+
+	@Benchmark
+	public String toStringWholeManifest() {
+		return manifest.toString();
+	}
+
+	/**
+	 * Runs the benchmarks with the GC profiler, passing on any JMH
+	 * command-line options.
+	 *
+	 * @param args JMH options
+	 * @throws RunnerException if a benchmark fails
+	 * @throws CommandLineOptionException if the options are invalid
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions options = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).addProfiler(GCProfiler.class);
+		if (options.getIncludes().isEmpty())
+			builder.include(ManifestBenchmarks.class.getName());
+		new Runner(builder.build()).run();
+	}
+}
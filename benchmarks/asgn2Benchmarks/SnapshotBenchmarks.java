@@ -0,0 +1,129 @@
+package asgn2Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import asgn2Containers.FreightContainer;
+import asgn2Exceptions.CargoException;
+import asgn2Exceptions.ManifestException;
+import asgn2Manifests.CargoManifest;
+import asgn2Manifests.ManifestSnapshot;
+
+/**
+ * JMH benchmarks for restoring a whole manifest from a
+ * <code>ManifestSnapshot</code>, compared with loading the same
+ * containers again one at a time.  The target is to restore 20,000
+ * containers in a few milliseconds.  The cargo is the same typical mix
+ * as in <code>ManifestBenchmarks</code>, on a ship with a quarter of
+ * its space left empty.
+ *
+ * @author fatimah-n8631000
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SnapshotBenchmarks {
+
+	private static final int MAX_HEIGHT = 5;
+	/** The heaviest a container can be, in tonnes. */
+	private static final int MAX_GROSS_WEIGHT = 30;
+
+	@Param({"2000", "20000"})
+	public int numContainers;
+
+	private int numStacks;
+	private Path dir;
+	private Path file;
+	private FreightContainer[] containers; // in the order they were loaded
+
+	/**
+	 * Loads a manifest with the chosen number of containers and saves a
+	 * snapshot of it.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws ManifestException, CargoException, IOException {
+		Random random = new Random(6346);
+		numStacks = numContainers * 4 / (3 * MAX_HEIGHT);
+		CargoManifest manifest = newManifest();
+		List<FreightContainer> loaded = new ArrayList<FreightContainer>(numContainers);
+		for (long serial = 0; loaded.size() < numContainers; serial++) {
+			FreightContainer container = ManifestBenchmarks.mixedContainer(random, ManifestBenchmarks.codeFor(serial));
+			if (manifest.tryLoadContainer(container).isSuccess())
+				loaded.add(container);
+		}
+		containers = loaded.toArray(new FreightContainer[loaded.size()]);
+
+		dir = Files.createTempDirectory("snapshot");
+		file = dir.resolve("manifest.snapshot");
+		ManifestSnapshot.save(manifest, file);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(dir);
+	}
+
+	private CargoManifest newManifest() throws ManifestException {
+		return new CargoManifest(numStacks, MAX_HEIGHT, numStacks * MAX_HEIGHT * MAX_GROSS_WEIGHT);
+	}
+
+	@Benchmark
+	public CargoManifest restore() throws IOException, ManifestException {
+		return ManifestSnapshot.restore(file);
+	}
+
+	@Benchmark
+	public CargoManifest loadEveryContainer() throws ManifestException {
+		CargoManifest manifest = newManifest();
+		for (FreightContainer container : containers)
+			manifest.loadContainer(container);
+		return manifest;
+	}
+
+	/**
+	 * Runs the benchmarks with the GC profiler, passing on any JMH
+	 * command-line options.
+	 *
+	 * @param args JMH options
+	 * @throws RunnerException if a benchmark fails
+	 * @throws CommandLineOptionException if the options are invalid
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions options = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).addProfiler(GCProfiler.class);
+		if (options.getIncludes().isEmpty())
+			builder.include(SnapshotBenchmarks.class.getName());
+		new Runner(builder.build()).run();
+	}
+}